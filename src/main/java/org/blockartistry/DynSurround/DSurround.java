@@ -195,8 +195,18 @@ public class DSurround {
 	
 	@NetworkCheckHandler
 	public boolean checkModLists(@Nonnull final Map<String, String> modList, @Nonnull final Side side) {
+		final String remote = modList.get(DSurround.MOD_ID);
+
+		// Packet ids and formats change between builds, so if the other side
+		// has the mod it has to be the same version.
+		if (remote != null && !DSurround.VERSION.equals(remote)) {
+			log().warn("Remote %s has version %s installed, need %s", side == Side.SERVER ? "server" : "client",
+					remote, DSurround.VERSION);
+			return false;
+		}
+
 		if (side == Side.SERVER) {
-			installedOnServer = modList.containsKey(DSurround.MOD_ID);
+			installedOnServer = remote != null;
 		}
 
 		return true;
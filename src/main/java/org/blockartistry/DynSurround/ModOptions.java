@@ -55,6 +55,7 @@ public final class ModOptions {
 	public static class Trace {
 		public static final int TRUE_SOUND_VOLUME = 0x1;
 		public static final int TICK_PROFILE = 0x2;
+		public static final int NETWORK_STATS = 0x4;
 	};
 
 	private ModOptions() {
@@ -127,12 +128,14 @@ public final class ModOptions {
 	public static final String CONFIG_STORM_INACTIVE_TIME_VARIABLE = "Inactive duration of thunder, variable";
 	public static final String CONFIG_ENABLE_BACKGROUND_THUNDER = "Enable Background Thunder";
 	public static final String CONFIG_THUNDER_THRESHOLD = "Rain Intensity for Background Thunder";
+	public static final String CONFIG_WEATHER_SAVE_INTERVAL = "Weather Save Interval";
 
 	private static final List<String> rainSort = Arrays.asList(CONFIG_VANILLA_RAIN, CONFIG_ALLOW_DESERT_DUST,
 			CONFIG_RESET_RAIN_ON_SLEEP, CONFIG_RAIN_PARTICLE_BASE, CONFIG_RAIN_ACTIVE_TIME_CONST,
 			CONFIG_RAIN_ACTIVE_TIME_VARIABLE, CONFIG_RAIN_INACTIVE_TIME_CONST, CONFIG_RAIN_INACTIVE_TIME_VARIABLE,
 			CONFIG_STORM_ACTIVE_TIME_CONST, CONFIG_STORM_ACTIVE_TIME_VARIABLE, CONFIG_STORM_INACTIVE_TIME_CONST,
-			CONFIG_STORM_INACTIVE_TIME_VARIABLE, CONFIG_ENABLE_BACKGROUND_THUNDER, CONFIG_THUNDER_THRESHOLD);
+			CONFIG_STORM_INACTIVE_TIME_VARIABLE, CONFIG_ENABLE_BACKGROUND_THUNDER, CONFIG_THUNDER_THRESHOLD,
+			CONFIG_WEATHER_SAVE_INTERVAL);
 
 	@Parameter(category = CATEGORY_RAIN, property = CONFIG_VANILLA_RAIN, defaultValue = "false", lang = "cfg.rain.VanillaRain")
 	@Comment("Let Vanilla handle rain intensity and time windows")
@@ -184,6 +187,10 @@ public final class ModOptions {
 	@MinMaxFloat(min = 0)
 	@Comment("Minimum rain intensity level for background thunder to occur")
 	public static float stormThunderThreshold = 0.75F;
+	@Parameter(category = CATEGORY_RAIN, property = CONFIG_WEATHER_SAVE_INTERVAL, defaultValue = "1200", lang = "cfg.rain.SaveInterval")
+	@MinMaxInt(min = 1)
+	@Comment("Interval, in ticks, at which changes to current rain intensity and thunder timers are saved")
+	public static int weatherSaveInterval = 1200;
 
 	public static final String CATEGORY_FOG = "fog";
 	public static final String CONFIG_ALLOW_DESERT_FOG = "Desert Fog";
@@ -229,9 +236,12 @@ public final class ModOptions {
 	public static final String CONFIG_FX_RANGE = "Special Effect Range";
 	public static final String CONFIG_DISABLE_SUSPEND = "Disable Water Suspend Particles";
 	public static final String CONFIG_STARTUP_SOUND_LIST = "Startup Sound List";
+	public static final String CONFIG_PARTICLE_BUDGET = "Particle Budget";
+	public static final String CONFIG_PARTICLE_BUDGET_FPS = "Particle Budget Target FPS";
 	private static final List<String> generalSort = ImmutableList.<String>builder()
 			.add(CONFIG_DISABLE_SUSPEND, CONFIG_FX_RANGE, CONFIG_MIN_RAIN_STRENGTH, CONFIG_MAX_RAIN_STRENGTH,
-					CONFIG_EXTERNAL_SCRIPTS, CONFIG_STARTUP_SOUND_LIST)
+					CONFIG_EXTERNAL_SCRIPTS, CONFIG_STARTUP_SOUND_LIST, CONFIG_PARTICLE_BUDGET,
+					CONFIG_PARTICLE_BUDGET_FPS)
 			.build();
 
 	@Parameter(category = CATEGORY_GENERAL, property = CONFIG_DISABLE_SUSPEND, defaultValue = "false", lang = "cfg.general.Suspend")
@@ -257,6 +267,14 @@ public final class ModOptions {
 	@Comment("Possible sounds to play when client reaches main game menu")
 	public static String[] startupSoundList = { "minecraft:entity.experience_orb.pickup",
 			"minecraft:entity.chicken.egg" };
+	@Parameter(category = CATEGORY_GENERAL, property = CONFIG_PARTICLE_BUDGET, defaultValue = "600", lang = "cfg.general.ParticleBudget")
+	@MinMaxInt(min = 100, max = 4000)
+	@Comment("Maximum number of effect particles that can be spawned per tick across all sources")
+	public static int particleBudget = 600;
+	@Parameter(category = CATEGORY_GENERAL, property = CONFIG_PARTICLE_BUDGET_FPS, defaultValue = "30", lang = "cfg.general.ParticleBudgetFPS")
+	@MinMaxInt(min = 10, max = 120)
+	@Comment("Frame rate below which the particle budget is reduced")
+	public static int particleBudgetTargetFPS = 30;
 
 	public static final String CATEGORY_AURORA = "aurora";
 	public static final String CONFIG_AURORA_ENABLED = "Enabled";
@@ -289,6 +307,7 @@ public final class ModOptions {
 	public static final String CONFIG_BLOCK_EFFECT_FOUNTAIN = "Enable FountainJetEffect";
 	public static final String CONFIG_BLOCK_EFFECT_FIREFLY = "Enable Fireflies";
 	public static final String CONFIG_BLOCK_EFFECT_SPLASH = "Enable Water Splash";
+	public static final String CONFIG_BLOCK_EFFECT_VIEW_FILTER = "Camera Aware Effects";
 
 	@Parameter(category = CATEGORY_BLOCK_EFFECTS, property = CONFIG_BLOCK_EFFECT_STEAM, defaultValue = "true", lang = "cfg.block.effects.Steam")
 	@Comment("Enable Steam Jets where lava meets water")
@@ -311,6 +330,9 @@ public final class ModOptions {
 	@Parameter(category = CATEGORY_BLOCK_EFFECTS, property = CONFIG_BLOCK_EFFECT_SPLASH, defaultValue = "true", lang = "cfg.block.effects.Splash")
 	@Comment("Enable Water Splash effects when water spills down")
 	public static boolean enableWaterSplash = true;
+	@Parameter(category = CATEGORY_BLOCK_EFFECTS, property = CONFIG_BLOCK_EFFECT_VIEW_FILTER, defaultValue = "true", lang = "cfg.block.effects.ViewFilter")
+	@Comment("Favor block effects that are in view of the camera and skip those that are enclosed by solid blocks")
+	public static boolean enableEffectViewFilter = true;
 
 	public static final String CATEGORY_SOUND = "sound";
 	public static final String CONFIG_RESTART_SOUND_SYSTEM = "Auto-restart Sound System";
@@ -327,6 +349,8 @@ public final class ModOptions {
 	public static final String CONFIG_ENABLE_CRAFTING_SOUND = "Crafting Sound";
 	public static final String CONFIG_FOOTSTEPS_SOUND_FACTOR = "Footsteps Sound Factor";
 	public static final String CONFIG_FOOTSTEPS_QUAD = "Footsteps as Quadruped";
+	public static final String CONFIG_FOOTSTEPS_ENTITY_RANGE = "Footsteps Entity Range";
+	public static final String CONFIG_FOOTSTEPS_ENTITY_BUDGET = "Footsteps Entity Budget";
 	public static final String CONFIG_ENABLE_ARMOR_SOUND = "Armor Sound";
 	public static final String CONFIG_SOUND_CULL_THRESHOLD = "Sound Culling Threshold";
 	public static final String CONFIG_CULLED_SOUNDS = "Culled Sounds";
@@ -336,7 +360,8 @@ public final class ModOptions {
 	public static final String CONFIG_ENABLE_BATTLEMUSIC = "Battle Music";
 	private static final List<String> soundsSort = Arrays.asList(CONFIG_RESTART_SOUND_SYSTEM,
 			CONFIG_ENABLE_BIOME_SOUNDS, CONFIG_MASTER_SOUND_FACTOR, CONFIG_FOOTSTEPS_SOUND_FACTOR,
-			CONFIG_FOOTSTEPS_QUAD, CONFIG_ENABLE_ARMOR_SOUND, CONFIG_ENABLE_JUMP_SOUND, CONFIG_ENABLE_EQUIP_SOUND,
+			CONFIG_FOOTSTEPS_QUAD, CONFIG_FOOTSTEPS_ENTITY_RANGE, CONFIG_FOOTSTEPS_ENTITY_BUDGET,
+			CONFIG_ENABLE_ARMOR_SOUND, CONFIG_ENABLE_JUMP_SOUND, CONFIG_ENABLE_EQUIP_SOUND,
 			CONFIG_ENABLE_CRAFTING_SOUND, CONFIG_AUTO_CONFIG_CHANNELS, CONFIG_NORMAL_CHANNEL_COUNT,
 			CONFIG_STREAMING_CHANNEL_COUNT, CONFIG_STREAM_BUFFER_SIZE, CONFIG_STREAM_BUFFER_COUNT,
 			CONFIG_MUTE_WHEN_BACKGROUND, CONFIG_THUNDER_VOLUME, CONFIG_BLOCKED_SOUNDS, CONFIG_SOUND_CULL_THRESHOLD,
@@ -399,6 +424,14 @@ public final class ModOptions {
 	@Parameter(category = CATEGORY_SOUND, property = CONFIG_FOOTSTEPS_QUAD, defaultValue = "false", lang = "cfg.sound.FootstepQuad")
 	@Comment("Simulate quadruped with Footstep effects (horse)")
 	public static boolean foostepsQuadruped = false;
+	@Parameter(category = CATEGORY_SOUND, property = CONFIG_FOOTSTEPS_ENTITY_RANGE, defaultValue = "16", lang = "cfg.sound.FootstepRange")
+	@MinMaxInt(min = 0, max = 32)
+	@Comment("Range at which footsteps of other players are generated (0 to disable)")
+	public static int footstepsEntityRange = 16;
+	@Parameter(category = CATEGORY_SOUND, property = CONFIG_FOOTSTEPS_ENTITY_BUDGET, defaultValue = "16", lang = "cfg.sound.FootstepBudget")
+	@MinMaxInt(min = 1, max = 64)
+	@Comment("Maximum number of other players whose footsteps are processed each tick")
+	public static int footstepsEntityBudget = 16;
 	@Parameter(category = CATEGORY_SOUND, property = CONFIG_ENABLE_ARMOR_SOUND, defaultValue = "true", lang = "cfg.sound.Armor")
 	@Comment("Enable/disable armor sounds when moving")
 	public static boolean enableArmorSounds = true;
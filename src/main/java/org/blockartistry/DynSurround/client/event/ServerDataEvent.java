@@ -27,19 +27,30 @@ package org.blockartistry.DynSurround.client.event;
 import javax.annotation.Nonnull;
 
 import gnu.trove.map.hash.TIntDoubleHashMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
 import net.minecraftforge.fml.common.eventhandler.Event;
 
 public class ServerDataEvent extends Event {
 	
 	  public final double meanTickTime;
+	  public final float[] tickPercentiles;
 	  public final TIntDoubleHashMap dimTps;
+	  public final TIntObjectHashMap<float[]> dimPercentiles;
 	  public final int free;
 	  public final int total;
 	  public final int max;
 
-	public ServerDataEvent(@Nonnull final TIntDoubleHashMap dimensionTps, final double meanTickTime, final int freeMemory, final int totalMemory, final int maxMemory) {
+	/**
+	 * Tick times are in milliseconds. Percentile arrays hold p50, p95 and p99
+	 * in that order.
+	 */
+	public ServerDataEvent(@Nonnull final TIntDoubleHashMap dimensionTps, final double meanTickTime,
+			@Nonnull final TIntObjectHashMap<float[]> dimensionPercentiles, @Nonnull final float[] tickPercentiles,
+			final int freeMemory, final int totalMemory, final int maxMemory) {
 		this.dimTps = dimensionTps;
+		this.dimPercentiles = dimensionPercentiles;
 		this.meanTickTime = meanTickTime;
+		this.tickPercentiles = tickPercentiles;
 		this.free = freeMemory;
 		this.total = totalMemory;
 		this.max = maxMemory;
@@ -30,6 +30,7 @@ import org.blockartistry.DynSurround.DSurround;
 import org.blockartistry.DynSurround.ModOptions;
 import org.blockartistry.DynSurround.client.fx.particle.ExplosionHelper;
 import org.blockartistry.DynSurround.client.handlers.EnvironStateHandler.EnvironState;
+import org.blockartistry.DynSurround.client.hud.LightLevelHUD;
 
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
@@ -72,7 +73,11 @@ public class WorldEventDetector implements IWorldEventListener {
 
 	@Override
 	public void notifyLightSet(@Nonnull final BlockPos pos) {
-
+		// Only the light level HUD listens, and it drops its cache when hidden
+		if (LightLevelHUD.showHUD && this.world.provider.getDimension() == EnvironState.getDimensionId()) {
+			final LightUpdateEvent event = new LightUpdateEvent(this.world, pos);
+			MinecraftForge.EVENT_BUS.post(event);
+		}
 	}
 
 	@Override
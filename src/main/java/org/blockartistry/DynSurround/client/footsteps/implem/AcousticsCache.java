@@ -0,0 +1,255 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.DynSurround.client.footsteps.implem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.annotation.Nonnull;
+
+import org.blockartistry.DynSurround.DSurround;
+import org.blockartistry.DynSurround.client.footsteps.interfaces.EventType;
+import org.blockartistry.DynSurround.client.footsteps.interfaces.IAcoustic;
+import org.blockartistry.DynSurround.client.sound.Sounds;
+
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Binary image of the compiled acoustic library and the merged primitive
+ * map. The image is tagged with a hash of the resource pack data it was built
+ * from; if the hash does not match the caller falls back to parsing the JSON
+ * and writing a new image.
+ */
+@SideOnly(Side.CLIENT)
+public final class AcousticsCache {
+
+	private static final int MAGIC = 0x44534143; // DSAC
+	private static final int FORMAT_VERSION = 1;
+
+	private static final byte TYPE_BASIC = 0;
+	private static final byte TYPE_DELAYED = 1;
+	private static final byte TYPE_SIMULTANEOUS = 2;
+	private static final byte TYPE_PROBABILITY = 3;
+
+	private static final EventType[] EVENTS = EventType.values();
+
+	private final File file;
+
+	public AcousticsCache(@Nonnull final File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Loads the image into the acoustics manager and primitive map if it was
+	 * built from data matching the hash. Returns false if the image is
+	 * missing, stale, or cannot be read.
+	 */
+	public boolean load(@Nonnull final String hash, @Nonnull final AcousticsManager acoustics,
+			@Nonnull final Map<String, String> primitives) {
+		if (!this.file.exists())
+			return false;
+
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.file)));
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !hash.equals(in.readUTF()))
+				return false;
+
+			final List<IAcoustic> library = new ArrayList<IAcoustic>();
+			for (int count = in.readInt(); count > 0; count--) {
+				final EventSelectorAcoustics selector = new EventSelectorAcoustics(in.readUTF());
+				for (int pairs = in.readByte(); pairs > 0; pairs--) {
+					final EventType event = EVENTS[in.readByte()];
+					selector.setAcousticPair(event, readAcoustic(in));
+				}
+				library.add(selector);
+			}
+
+			final int count = in.readInt();
+			for (int i = 0; i < count; i++)
+				primitives.put(in.readUTF(), in.readUTF());
+
+			for (final IAcoustic a : library)
+				acoustics.addAcoustic(a);
+
+			return true;
+		} catch (final Throwable t) {
+			DSurround.log().warn("Unable to read acoustic cache %s: %s", this.file.getName(), t.getMessage());
+			primitives.clear();
+			return false;
+		} finally {
+			if (in != null)
+				try {
+					in.close();
+				} catch (final IOException e) {
+					;
+				}
+		}
+	}
+
+	/**
+	 * Writes an image of the acoustics manager and primitive map.
+	 */
+	public void save(@Nonnull final String hash, @Nonnull final AcousticsManager acoustics,
+			@Nonnull final Map<String, String> primitives) {
+		DataOutputStream out = null;
+		boolean success = false;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(this.file)));
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeUTF(hash);
+
+			out.writeInt(acoustics.getAllAcoustics().size());
+			for (final IAcoustic a : acoustics.getAllAcoustics()) {
+				if (!(a instanceof EventSelectorAcoustics))
+					throw new IOException("Unexpected acoustic type " + a.getClass().getName());
+				final EventSelectorAcoustics selector = (EventSelectorAcoustics) a;
+				out.writeUTF(selector.getAcousticName());
+
+				int pairs = 0;
+				for (final EventType event : EVENTS)
+					if (selector.getAcousticPair(event) != null)
+						pairs++;
+				out.writeByte(pairs);
+				for (final EventType event : EVENTS) {
+					final IAcoustic pair = selector.getAcousticPair(event);
+					if (pair != null) {
+						out.writeByte(event.ordinal());
+						writeAcoustic(out, pair);
+					}
+				}
+			}
+
+			out.writeInt(primitives.size());
+			for (final Entry<String, String> e : primitives.entrySet()) {
+				out.writeUTF(e.getKey());
+				out.writeUTF(e.getValue());
+			}
+
+			success = true;
+		} catch (final Throwable t) {
+			DSurround.log().warn("Unable to write acoustic cache %s: %s", this.file.getName(), t.getMessage());
+		} finally {
+			if (out != null)
+				try {
+					out.close();
+				} catch (final IOException e) {
+					success = false;
+				}
+			if (!success)
+				this.file.delete();
+		}
+	}
+
+	private static void writeAcoustic(@Nonnull final DataOutputStream out, @Nonnull final IAcoustic acoustic)
+			throws IOException {
+		if (acoustic instanceof BasicAcoustic) {
+			final BasicAcoustic a = (BasicAcoustic) acoustic;
+			out.writeByte(a instanceof DelayedAcoustic ? TYPE_DELAYED : TYPE_BASIC);
+			out.writeUTF(a.acousticName);
+			out.writeUTF(a.sound == null ? "" : a.sound.getSoundName().toString());
+			out.writeFloat(a.volMin);
+			out.writeFloat(a.volMax);
+			out.writeFloat(a.pitchMin);
+			out.writeFloat(a.pitchMax);
+			if (a instanceof DelayedAcoustic) {
+				out.writeLong(((DelayedAcoustic) a).delayMin);
+				out.writeLong(((DelayedAcoustic) a).delayMax);
+			}
+		} else if (acoustic instanceof SimultaneousAcoustic) {
+			final SimultaneousAcoustic a = (SimultaneousAcoustic) acoustic;
+			out.writeByte(TYPE_SIMULTANEOUS);
+			out.writeInt(a.acoustics.length);
+			for (final IAcoustic child : a.acoustics)
+				writeAcoustic(out, child);
+		} else if (acoustic instanceof ProbabilityWeightsAcoustic) {
+			final ProbabilityWeightsAcoustic a = (ProbabilityWeightsAcoustic) acoustic;
+			out.writeByte(TYPE_PROBABILITY);
+			out.writeInt(a.acoustics.length);
+			for (int i = 0; i < a.acoustics.length; i++) {
+				out.writeInt(a.weights[i]);
+				writeAcoustic(out, a.acoustics[i]);
+			}
+		} else {
+			throw new IOException("Unexpected acoustic type " + acoustic.getClass().getName());
+		}
+	}
+
+	@Nonnull
+	private static IAcoustic readAcoustic(@Nonnull final DataInputStream in) throws IOException {
+		final byte type = in.readByte();
+		switch (type) {
+		case TYPE_BASIC:
+		case TYPE_DELAYED: {
+			final BasicAcoustic a = type == TYPE_DELAYED ? new DelayedAcoustic() : new BasicAcoustic();
+			a.acousticName = in.readUTF();
+			final String sound = in.readUTF();
+			if (!sound.isEmpty())
+				a.setSound(Sounds.getSound(new ResourceLocation(sound)));
+			a.setVolMin(in.readFloat());
+			a.setVolMax(in.readFloat());
+			a.setPitchMin(in.readFloat());
+			a.setPitchMax(in.readFloat());
+			if (type == TYPE_DELAYED) {
+				((DelayedAcoustic) a).setDelayMin(in.readLong());
+				((DelayedAcoustic) a).setDelayMax(in.readLong());
+			}
+			return a;
+		}
+		case TYPE_SIMULTANEOUS: {
+			final int count = in.readInt();
+			final List<IAcoustic> acoustics = new ArrayList<IAcoustic>(count);
+			for (int i = 0; i < count; i++)
+				acoustics.add(readAcoustic(in));
+			return new SimultaneousAcoustic(acoustics);
+		}
+		case TYPE_PROBABILITY: {
+			final int count = in.readInt();
+			final List<IAcoustic> acoustics = new ArrayList<IAcoustic>(count);
+			final List<Integer> weights = new ArrayList<Integer>(count);
+			for (int i = 0; i < count; i++) {
+				weights.add(in.readInt());
+				acoustics.add(readAcoustic(in));
+			}
+			return new ProbabilityWeightsAcoustic(acoustics, weights);
+		}
+		default:
+			throw new IOException("Unknown acoustic type " + type);
+		}
+	}
+}
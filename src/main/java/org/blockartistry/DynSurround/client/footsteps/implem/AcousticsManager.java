@@ -25,6 +25,7 @@
 package org.blockartistry.DynSurround.client.footsteps.implem;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Random;
@@ -46,17 +47,14 @@ import org.blockartistry.DynSurround.client.footsteps.system.Isolator;
 import org.blockartistry.DynSurround.client.handlers.SoundEffectHandler;
 import org.blockartistry.DynSurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.blockartistry.DynSurround.client.sound.FootstepSound;
-import org.blockartistry.DynSurround.network.Network;
-import org.blockartistry.DynSurround.network.PacketDisplayFootprint;
 import org.blockartistry.lib.BlockPosHelper;
 import org.blockartistry.lib.MCHelper;
 import org.blockartistry.lib.TimeUtils;
 import org.blockartistry.lib.WorldUtils;
 import org.blockartistry.lib.collections.ObjectArray;
+import org.blockartistry.lib.collections.TimerWheel;
 import org.blockartistry.lib.random.XorShiftRandom;
 
-import com.google.common.base.Predicate;
-
 import net.minecraft.block.SoundType;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
@@ -77,7 +75,15 @@ public class AcousticsManager implements ISoundPlayer, IStepPlayer {
 	private final Random RANDOM = XorShiftRandom.current();
 
 	private final HashMap<String, IAcoustic> acoustics = new HashMap<String, IAcoustic>();
-	private final ObjectArray<PendingSound> pending = new ObjectArray<PendingSound>();
+	private final TimerWheel<PendingSound> pending = new TimerWheel<PendingSound>(128, 10L);
+	private final TimerWheel.Handler<PendingSound> playPending = new TimerWheel.Handler<PendingSound>() {
+		@Override
+		public void onExpire(@Nonnull final PendingSound sound) {
+			if (!sound.isLate(AcousticsManager.this.thinkTime))
+				sound.playSound(AcousticsManager.this);
+		}
+	};
+	private long thinkTime;
 	private final ObjectArray<Footprint> footprints = new ObjectArray<Footprint>();
 	private final Isolator isolator;
 	private final BlockPos.MutableBlockPos stepCheck = new BlockPos.MutableBlockPos();
@@ -101,19 +107,17 @@ public class AcousticsManager implements ISoundPlayer, IStepPlayer {
 		return this.acoustics.get(name);
 	}
 
-	protected void produceFootprint(final int dim, @Nonnull final Footprint print) {
+	@Nonnull
+	public Collection<IAcoustic> getAllAcoustics() {
+		return this.acoustics.values();
+	}
 
-		// Display the current player footprint
+	protected void produceFootprint(final int dim, @Nonnull final Footprint print) {
+		// Footprints of other entities are generated locally so there is no
+		// need to route to the server.
 		final FootstepEvent.Display event = new FootstepEvent.Display(print.getStepLocation(), print.getRotation(),
 				print.isRightFoot());
 		MinecraftForge.EVENT_BUS.post(event);
-
-		// Route message to server if installed
-		if (!EnvironState.isPlayerSneaking() && DSurround.isInstalledOnServer()) {
-			final PacketDisplayFootprint packet = new PacketDisplayFootprint(EnvironState.getPlayer(),
-					print.getStepLocation(), print.getRotation(), print.isRightFoot());
-			Network.sendToServer(packet);
-		}
 	}
 
 	public void playAcoustic(@Nonnull final Object location, @Nonnull final Association acousticName,
@@ -204,8 +208,8 @@ public class AcousticsManager implements ISoundPlayer, IStepPlayer {
 				if (options.hasOption(Option.DELAY_MIN) && options.hasOption(Option.DELAY_MAX)) {
 					final long delay = TimeUtils.currentTimeMillis()
 							+ randAB(RANDOM, options.asLong(Option.DELAY_MIN), options.asLong(Option.DELAY_MAX));
-					this.pending.add(new PendingSound(location, sound, volume, pitch, null, delay,
-							options.asLong(Option.DELAY_MAX)));
+					this.pending.schedule(new PendingSound(location, sound, volume, pitch, null, delay,
+							options.asLong(Option.DELAY_MAX)), delay);
 				} else {
 					actuallyPlaySound((Entity) location, sound, volume, pitch);
 				}
@@ -222,8 +226,6 @@ public class AcousticsManager implements ISoundPlayer, IStepPlayer {
 
 		try {
 			final FootstepSound s = new FootstepSound(location, sound).setVolume(volume).setPitch(pitch);
-			if (EnvironState.isPlayerSneaking())
-				s.setRoutable(false);
 			SoundEffectHandler.INSTANCE.playSound(s);
 		} catch (final Throwable t) {
 			DSurround.log().error("Unable to play sound", t);
@@ -242,20 +244,8 @@ public class AcousticsManager implements ISoundPlayer, IStepPlayer {
 
 	public void think() {
 
-		if (!this.pending.isEmpty())
-			this.pending.removeIf(new Predicate<PendingSound>() {
-				private final long time = TimeUtils.currentTimeMillis();
-
-				@Override
-				public boolean apply(@Nonnull final PendingSound sound) {
-					if (sound.getTimeToPlay() <= this.time) {
-						if (!sound.isLate(this.time))
-							sound.playSound(AcousticsManager.this);
-						return true;
-					}
-					return false;
-				}
-			});
+		this.thinkTime = TimeUtils.currentTimeMillis();
+		this.pending.advance(this.thinkTime, this.playPending);
 
 		if (!this.footprints.isEmpty()) {
 			for (int i = 0; i < this.footprints.size(); i++) {
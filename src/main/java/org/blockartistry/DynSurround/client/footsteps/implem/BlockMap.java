@@ -25,6 +25,7 @@
 package org.blockartistry.DynSurround.client.footsteps.implem;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
@@ -41,6 +42,8 @@ import org.blockartistry.DynSurround.client.footsteps.system.Isolator;
 import org.blockartistry.DynSurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.blockartistry.DynSurround.facade.FacadeHelper;
 import org.blockartistry.DynSurround.registry.BlockInfo;
+import org.blockartistry.DynSurround.util.BlockState;
+import org.blockartistry.DynSurround.util.BlockState.Consumer;
 import org.blockartistry.lib.MCHelper;
 import gnu.trove.map.hash.THashMap;
 import net.minecraft.block.Block;
@@ -59,6 +62,13 @@ public class BlockMap {
 	private final BlockAcousticMap metaMap = new BlockAcousticMap();
 	private Map<Substrate, BlockAcousticMap> substrateMap = new EnumMap<Substrate, BlockAcousticMap>(Substrate.class);
 
+	// Compiled form of the maps indexed by [substrate][stateId]. The last
+	// row holds the non-substrate acoustics. States that can be a facade
+	// have their bit set in facades and have to be resolved in world first.
+	private static final int BASE = Substrate.values().length;
+	private IAcoustic[][] compiled;
+	private BitSet facades;
+
 	private static class MacroEntry {
 		public final int meta;
 		public final String substrate;
@@ -139,6 +149,11 @@ public class BlockMap {
 	
 	@Nullable
 	public IAcoustic[] getBlockAcoustics(@Nonnull final IBlockState state, @Nonnull final BlockPos pos) {
+		if (this.compiled != null) {
+			final int id = Block.getStateId(state);
+			if (id < this.compiled[BASE].length && !this.facades.get(id))
+				return this.compiled[BASE][id];
+		}
 		final IBlockState trueState = FacadeHelper.resolveState(state, EnvironState.getWorld(), pos, EnumFacing.UP);
 		return this.metaMap.getBlockAcoustics(trueState);
 	}
@@ -146,6 +161,11 @@ public class BlockMap {
 	@Nullable
 	public IAcoustic[] getBlockSubstrateAcoustics(@Nonnull final IBlockState state, @Nonnull final BlockPos pos,
 			@Nonnull final Substrate substrate) {
+		if (this.compiled != null) {
+			final int id = Block.getStateId(state);
+			if (id < this.compiled[BASE].length && !this.facades.get(id))
+				return this.compiled[substrate.ordinal()][id];
+		}
 		final IBlockState trueState = FacadeHelper.resolveState(state, EnvironState.getWorld(), pos, EnumFacing.UP);
 		final BlockAcousticMap sub = this.substrateMap.get(substrate);
 		return sub != null ? sub.getBlockAcousticsWithSpecial(trueState) : null;
@@ -180,6 +200,10 @@ public class BlockMap {
 	}
 
 	public void register(@Nonnull final String key, @Nonnull final String value) {
+		// Any compiled form is stale at this point
+		this.compiled = null;
+		this.facades = null;
+
 		final Matcher matcher = pattern.matcher(key);
 		if (matcher.matches()) {
 			final String blockName = matcher.group(1);
@@ -231,6 +255,8 @@ public class BlockMap {
 	}
 
 	public void clear() {
+		this.compiled = null;
+		this.facades = null;
 		this.metaMap.clear();
 		this.substrateMap = new EnumMap<Substrate, BlockAcousticMap>(Substrate.class);
 		this.metaMap.put(new BlockInfo(Blocks.AIR), AcousticsManager.NOT_EMITTER);
@@ -239,4 +265,40 @@ public class BlockMap {
 	public void freeze() {
 		this.metaMap.freeze();
 	}
+
+	/**
+	 * Flattens the acoustic maps into arrays indexed by block state ID so
+	 * that step lookups do not have to go through the map chain. The state
+	 * ID is based on block and meta which is the same basis as the BlockInfo
+	 * keys of the maps.
+	 */
+	public void compile() {
+		final List<IBlockState> states = new ArrayList<IBlockState>();
+		BlockState.forEach(new Consumer<IBlockState>() {
+			@Override
+			public void accept(@Nonnull final IBlockState t) {
+				states.add(t);
+			}
+		});
+
+		int size = 0;
+		for (final IBlockState state : states)
+			size = Math.max(size, Block.getStateId(state) + 1);
+
+		final IAcoustic[][] table = new IAcoustic[BASE + 1][size];
+		final BitSet facadeStates = new BitSet(size);
+		for (final IBlockState state : states) {
+			final int id = Block.getStateId(state);
+			if (FacadeHelper.isFacade(state))
+				facadeStates.set(id);
+			table[BASE][id] = this.metaMap.getBlockAcoustics(state);
+			for (final Entry<Substrate, BlockAcousticMap> e : this.substrateMap.entrySet())
+				table[e.getKey().ordinal()][id] = e.getValue().getBlockAcousticsWithSpecial(state);
+		}
+
+		this.compiled = table;
+		this.facades = facadeStates;
+		DSurround.log().debug("Compiled acoustic table for %d block states (%d facades)", states.size(),
+				facadeStates.cardinality());
+	}
 }
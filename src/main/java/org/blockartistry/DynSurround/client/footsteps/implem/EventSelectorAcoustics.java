@@ -66,6 +66,11 @@ public class EventSelectorAcoustics implements IAcoustic {
 	public void setAcousticPair(@Nonnull final EventType type, @Nonnull final IAcoustic acoustic) {
 		this.pairs.put(type, acoustic);
 	}
+
+	@Nullable
+	public IAcoustic getAcousticPair(@Nonnull final EventType type) {
+		return this.pairs.get(type);
+	}
 	
 	@Override
 	public String toString() {
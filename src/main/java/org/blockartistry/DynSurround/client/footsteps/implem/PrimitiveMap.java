@@ -63,7 +63,10 @@ public class PrimitiveMap {
 	}
 
 	public void setup(@Nonnull final ConfigProperty props) {
-		final Map<String, String> properties = props.getAllProperties();
+		setup(props.getAllProperties());
+	}
+
+	public void setup(@Nonnull final Map<String, String> properties) {
 		for (final Entry<String, String> entry : properties.entrySet()) {
 			try {
 				register(entry.getKey(), entry.getValue());
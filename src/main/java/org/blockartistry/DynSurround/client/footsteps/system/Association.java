@@ -38,15 +38,26 @@ import net.minecraft.util.math.Vec3d;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
+/**
+ * Associations handed out by the Solver are shared between steps so they are
+ * treated as immutable. Variations such as armor overlays and footprints are
+ * produced as derived instances.
+ */
 @SideOnly(Side.CLIENT)
 public class Association {
 
 	private final IBlockState state;
 	private final BlockPos pos;
-	private IAcoustic[] data;
-	
+	private final IAcoustic[] data;
+
 	private Footprint print;
 
+	// Last overlay derived from this association. Armor rarely changes so
+	// this avoids rebuilding the acoustic list every step.
+	private IAcoustic overlayArmor;
+	private IAcoustic overlayFoot;
+	private Association overlay;
+
 	public Association() {
 		this(AcousticsManager.EMPTY);
 	}
@@ -84,8 +95,31 @@ public class Association {
 		return this.state != null ? MCHelper.getSoundType(this.state) : null;
 	}
 
-	public void add(@Nonnull final IAcoustic acoustics) {
-		this.data = MyUtils.append(this.data, acoustics);
+	/**
+	 * Returns an association with the additional acoustics appended. The
+	 * result is cached so repeated calls with the same acoustics return the
+	 * same instance.
+	 */
+	@Nonnull
+	public Association withOverlay(@Nullable final IAcoustic armor, @Nullable final IAcoustic foot) {
+		if (this.overlay == null || this.overlayArmor != armor || this.overlayFoot != foot) {
+			this.overlay = new Association(this.state, this.pos,
+					MyUtils.append(MyUtils.append(this.data, armor), foot));
+			this.overlayArmor = armor;
+			this.overlayFoot = foot;
+		}
+		return this.overlay;
+	}
+
+	/**
+	 * Returns a copy of this association that will generate a footprint when
+	 * played.
+	 */
+	@Nonnull
+	public Association withPrint(@Nonnull final Vec3d position, final float rotation, final boolean isRight) {
+		final Association result = new Association(this.state, this.pos, this.data);
+		result.print = Footprint.produce(position, rotation, isRight);
+		return result;
 	}
 
 	@Nonnull
@@ -96,13 +130,9 @@ public class Association {
 	public boolean isNotEmitter() {
 		return this.data == AcousticsManager.NOT_EMITTER;
 	}
-	
-	public void generatePrint(@Nonnull final Vec3d position, final float rotation, final boolean isRight) {
-		this.print = Footprint.produce(position, rotation, isRight);
-	}
-	
+
 	@Nullable
 	public Footprint getPrint() {
 		return this.print;
 	}
-}
\ No newline at end of file
+}
@@ -29,10 +29,11 @@ import javax.annotation.Nullable;
 
 import org.blockartistry.DynSurround.client.footsteps.implem.NormalVariator;
 import org.blockartistry.DynSurround.client.footsteps.interfaces.EventType;
+import org.blockartistry.DynSurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.blockartistry.lib.MathStuff;
 import org.blockartistry.lib.TimeUtils;
 
-import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.util.math.BlockPos;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
@@ -42,6 +43,18 @@ public class Generator {
 
 	private static final NormalVariator VAR = new NormalVariator();
 
+	// Movement beyond this in a single update is treated as a teleport
+	private static final double TELEPORT_DISTANCE_SQ = 4D * 4D;
+
+	/**
+	 * Level of detail used when resolving the acoustics of a step. Entities
+	 * close to the player get the full treatment; those further away only
+	 * have the block directly beneath them considered.
+	 */
+	public static enum Detail {
+		FULL, SIMPLE
+	}
+
 	// Construct
 	final protected Isolator mod;
 
@@ -68,14 +81,117 @@ public class Generator {
 	private boolean isMessyFoliage;
 	private long brushesTime;
 
+	// Motion state. The client player is simulated locally so the entity
+	// fields can be trusted. Other entities are positioned by the server so
+	// their movement is derived from how far they moved between updates.
+	protected boolean isRemote;
+	protected Detail detail = Detail.FULL;
+	protected float distanceReference;
+	protected double motionX;
+	protected double motionY;
+	protected double motionZ;
+	private double lastX;
+	private double lastY;
+	private double lastZ;
+	private int lastTick;
+
+	// Used by the Isolator to detect generators that are no longer in use
+	int pass;
+
 	public Generator(@Nonnull final Isolator isolator) {
 		this.mod = isolator;
 	}
 
-	public void generateFootsteps(@Nonnull final EntityPlayer ply) {
+	/**
+	 * Resets the state of the generator so it can be used for tracking
+	 * another entity.
+	 */
+	public void attach(@Nonnull final EntityLivingBase entity, final boolean isRemote) {
+		this.dmwBase = 0;
+		this.dwmYChange = 0;
+		this.yPosition = entity.posY;
+		this.isFlying = false;
+		this.fallDistance = 0;
+		this.lastReference = 0;
+		this.isImmobile = false;
+		this.timeImmobile = 0;
+		this.isRightFoot = false;
+		this.xMovec = 0;
+		this.zMovec = 0;
+		this.scalStat = false;
+		this.stepThisFrame = false;
+		this.isMessyFoliage = false;
+		this.brushesTime = 0;
+
+		this.isRemote = isRemote;
+		this.detail = Detail.FULL;
+		this.distanceReference = 0;
+		this.motionX = 0;
+		this.motionY = 0;
+		this.motionZ = 0;
+		this.lastX = entity.posX;
+		this.lastY = entity.posY;
+		this.lastZ = entity.posZ;
+		this.lastTick = EnvironState.getTickCounter();
+	}
+
+	public void setDetail(@Nonnull final Detail detail) {
+		this.detail = detail;
+	}
+
+	public void generateFootsteps(@Nonnull final EntityLivingBase ply) {
+		updateMotion(ply);
+
+		// Sneaking players are not heard by others
+		if (this.isRemote && ply.isSneaking())
+			return;
+
 		simulateFootsteps(ply);
 		simulateAirborne(ply);
-		simulateBrushes(ply);
+		if (this.detail == Detail.FULL)
+			simulateBrushes(ply);
+	}
+
+	protected void updateMotion(@Nonnull final EntityLivingBase ply) {
+		if (!this.isRemote) {
+			this.distanceReference = ply.distanceWalkedOnStepModified;
+			this.motionX = ply.motionX;
+			this.motionY = ply.motionY;
+			this.motionZ = ply.motionZ;
+			return;
+		}
+
+		final int tick = EnvironState.getTickCounter();
+		final int ticks = Math.max(tick - this.lastTick, 1);
+		final double dX = ply.posX - this.lastX;
+		final double dY = ply.posY - this.lastY;
+		final double dZ = ply.posZ - this.lastZ;
+		final double distSq = dX * dX + dZ * dZ;
+
+		if (distSq < TELEPORT_DISTANCE_SQ * ticks * ticks) {
+			// Same scaling Entity.move() applies to distanceWalkedOnStepModified
+			this.distanceReference += (float) MathStuff.sqrt(distSq) * 0.6F;
+			this.motionX = dX / ticks;
+			this.motionY = dY / ticks;
+			this.motionZ = dZ / ticks;
+		} else {
+			this.motionX = this.motionY = this.motionZ = 0;
+		}
+
+		this.lastX = ply.posX;
+		this.lastY = ply.posY;
+		this.lastZ = ply.posZ;
+		this.lastTick = tick;
+	}
+
+	protected double horizontalSpeedSq() {
+		return this.motionX * this.motionX + this.motionZ * this.motionZ;
+	}
+
+	// Don't play sounds on every tiny bounce. Only meaningful for the
+	// client player since vertical motion is not reliable for others.
+	protected boolean isTinyBounce() {
+		return !this.isRemote && MathStuff.abs(this.motionY) < 0.02;
 	}
 
 	protected boolean stoppedImmobile(float reference) {
@@ -93,8 +209,8 @@ public class Generator {
 		return false;
 	}
 
-	protected void simulateFootsteps(@Nonnull final EntityPlayer ply) {
-		final float distanceReference = ply.distanceWalkedOnStepModified;
+	protected void simulateFootsteps(@Nonnull final EntityLivingBase ply) {
+		final float distanceReference = this.distanceReference;
 
 		this.stepThisFrame = false;
 
@@ -103,14 +219,15 @@ public class Generator {
 			this.dwmYChange = 0;
 		}
 
-		final double movX = ply.motionX;
-		final double movZ = ply.motionZ;
+		final double movX = this.motionX;
+		final double movZ = this.motionZ;
 
 		double scal = movX * this.xMovec + movZ * this.zMovec;
 		if (this.scalStat != scal < 0.001f) {
 			this.scalStat = !this.scalStat;
 
-			if (this.scalStat && VAR.PLAY_WANDER && !this.mod.getSolver().hasSpecialStoppingConditions(ply)) {
+			if (this.scalStat && VAR.PLAY_WANDER && this.detail == Detail.FULL
+					&& !this.mod.getSolver().hasSpecialStoppingConditions(ply)) {
 				playSinglefoot(ply, 0d, EventType.WANDER, this.isRightFoot);
 			}
 		}
@@ -170,20 +287,22 @@ public class Generator {
 		}
 	}
 
-	protected void stepped(@Nonnull final EntityPlayer ply, @Nonnull final EventType event) {
+	protected void stepped(@Nonnull final EntityLivingBase ply, @Nonnull final EventType event) {
 	}
 
 	protected float reevaluateDistance(@Nonnull final EventType event, final float distance) {
 		return distance;
 	}
 
-	protected void produceStep(@Nonnull final EntityPlayer ply, @Nonnull final EventType event) {
+	protected void produceStep(@Nonnull final EntityLivingBase ply, @Nonnull final EventType event) {
 		produceStep(ply, event, 0d);
 	}
 
-	protected void produceStep(@Nonnull final EntityPlayer ply, @Nullable EventType event,
+	protected void produceStep(@Nonnull final EntityLivingBase ply, @Nullable EventType event,
 			final double verticalOffsetAsMinus) {
-		if (!this.mod.getSolver().playSpecialStoppingConditions(ply)) {
+		final double speed = MathStuff
+				.sqrt(this.motionX * this.motionX + this.motionY * this.motionY + this.motionZ * this.motionZ);
+		if (!this.mod.getSolver().playSpecialStoppingConditions(ply, speed)) {
 			if (event == null)
 				event = speedDisambiguator(ply, EventType.WALK, EventType.RUN);
 			playSinglefoot(ply, verticalOffsetAsMinus, event, this.isRightFoot);
@@ -193,7 +312,7 @@ public class Generator {
 		this.stepThisFrame = true;
 	}
 
-	protected void simulateAirborne(@Nonnull final EntityPlayer ply) {
+	protected void simulateAirborne(@Nonnull final EntityLivingBase ply) {
 		if ((ply.onGround || ply.isOnLadder()) == this.isFlying) {
 			this.isFlying = !this.isFlying;
 			simulateJumpingLanding(ply);
@@ -203,7 +322,7 @@ public class Generator {
 			this.fallDistance = ply.fallDistance;
 	}
 
-	protected void simulateJumpingLanding(@Nonnull final EntityPlayer ply) {
+	protected void simulateJumpingLanding(@Nonnull final EntityLivingBase ply) {
 		if (this.mod.getSolver().hasSpecialStoppingConditions(ply))
 			return;
 
@@ -211,7 +330,7 @@ public class Generator {
 
 		if (this.isFlying && isJumping) { // ply.isJumping)
 			if (VAR.EVENT_ON_JUMP) {
-				double speed = ply.motionX * ply.motionX + ply.motionZ * ply.motionZ;
+				double speed = horizontalSpeedSq();
 
 				if (speed < VAR.SPEED_TO_JUMP_AS_MULTIFOOT) { // STILL JUMP
 					playMultifoot(ply, 0.4d, EventType.JUMP); // 2 -
@@ -241,20 +360,20 @@ public class Generator {
 		}
 	}
 
-	protected EventType speedDisambiguator(@Nonnull final EntityPlayer ply, @Nonnull final EventType walk,
+	protected EventType speedDisambiguator(@Nonnull final EntityLivingBase ply, @Nonnull final EventType walk,
 			@Nonnull final EventType run) {
-		final double velocity = ply.motionX * ply.motionX + ply.motionZ * ply.motionZ;
+		final double velocity = horizontalSpeedSq();
 		return velocity > VAR.SPEED_TO_RUN ? run : walk;
 	}
 
-	private void simulateBrushes(@Nonnull final EntityPlayer ply) {
+	private void simulateBrushes(@Nonnull final EntityLivingBase ply) {
 		final long current = TimeUtils.currentTimeMillis();
 		if (this.brushesTime > current)
 			return;
 
 		this.brushesTime = current + 100;
 
-		if ((ply.motionX == 0d && ply.motionZ == 0d) || ply.isSneaking())
+		if ((this.motionX == 0d && this.motionZ == 0d) || ply.isSneaking())
 			return;
 
 		final int yy = MathStuff.floor(ply.posY - 0.1d - ply.getYOffset() - (ply.onGround ? 0d : 0.25d));
@@ -269,18 +388,31 @@ public class Generator {
 		}
 	}
 
-	protected void playSinglefoot(@Nonnull final EntityPlayer ply, final double verticalOffsetAsMinus,
+	@Nullable
+	protected Association findAssociation(@Nonnull final EntityLivingBase ply, final double verticalOffsetAsMinus,
+			final boolean foot) {
+		if (isTinyBounce())
+			return null;
+		final Solver s = this.mod.getSolver();
+		if (this.detail == Detail.FULL)
+			return s.findAssociationForEntity(ply, verticalOffsetAsMinus, foot);
+		return s.findAssociationForEntitySimple(ply, verticalOffsetAsMinus);
+	}
+
+	protected void playSinglefoot(@Nonnull final EntityLivingBase ply, final double verticalOffsetAsMinus,
 			@Nonnull final EventType eventType, final boolean foot) {
-		final Association assos = this.mod.getSolver().findAssociationForPlayer(ply, verticalOffsetAsMinus, foot);
+		final Association assos = findAssociation(ply, verticalOffsetAsMinus, foot);
 		this.mod.getSolver().playAssociation(ply, assos, eventType);
 	}
 
-	protected void playMultifoot(@Nonnull final EntityPlayer ply, final double verticalOffsetAsMinus,
+	protected void playMultifoot(@Nonnull final EntityLivingBase ply, final double verticalOffsetAsMinus,
 			final EventType eventType) {
 		// STILL JUMP
 		final Solver s = this.mod.getSolver();
-		final Association leftFoot = s.findAssociationForPlayer(ply, verticalOffsetAsMinus, false);
-		final Association rightFoot = s.findAssociationForPlayer(ply, verticalOffsetAsMinus, true);
+		final Association leftFoot = findAssociation(ply, verticalOffsetAsMinus, false);
+		// At reduced detail both feet resolve to the same block
+		final Association rightFoot = this.detail == Detail.FULL
+				? findAssociation(ply, verticalOffsetAsMinus, true) : leftFoot;
 		s.playAssociation(ply, leftFoot, eventType);
 		s.playAssociation(ply, rightFoot, eventType);
 	}
@@ -31,7 +31,7 @@ import javax.annotation.Nonnull;
 import org.blockartistry.DynSurround.client.footsteps.interfaces.EventType;
 import org.blockartistry.lib.random.XorShiftRandom;
 
-import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.EntityLivingBase;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
@@ -49,7 +49,7 @@ public class GeneratorQP extends Generator {
 	}
 
 	@Override
-	protected void stepped(@Nonnull final EntityPlayer ply, @Nonnull final EventType event) {
+	protected void stepped(@Nonnull final EntityLivingBase ply, @Nonnull final EventType event) {
 		if (this.hoof == 0 || this.hoof == 2) {
 			this.nextWalkDistanceMultiplier = this.rand.nextFloat();
 		}
@@ -24,20 +24,35 @@
 
 package org.blockartistry.DynSurround.client.footsteps.system;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
 import javax.annotation.Nonnull;
 
+import org.blockartistry.DynSurround.ModOptions;
 import org.blockartistry.DynSurround.client.footsteps.implem.AcousticsManager;
 import org.blockartistry.DynSurround.client.footsteps.implem.BlockMap;
 import org.blockartistry.DynSurround.client.footsteps.implem.PrimitiveMap;
 import org.blockartistry.DynSurround.client.footsteps.interfaces.ISoundPlayer;
 import org.blockartistry.DynSurround.client.footsteps.interfaces.IStepPlayer;
 
+import gnu.trove.iterator.TIntObjectIterator;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.world.World;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
 @SideOnly(Side.CLIENT)
 public class Isolator {
+
+	// Number of idle generators to keep around for reuse
+	private static final int POOL_SIZE = 32;
+
 	private AcousticsManager acoustics;
 	private Solver solver;
 	private BlockMap blockMap;
@@ -48,6 +63,22 @@ public class Isolator {
 
 	private Generator generator;
 
+	// Generator state for other entities in the vicinity of the player
+	private final TIntObjectHashMap<Generator> generators = new TIntObjectHashMap<Generator>();
+	private final ArrayDeque<Generator> pool = new ArrayDeque<Generator>();
+	private final List<EntityLivingBase> candidates = new ArrayList<EntityLivingBase>();
+	private World world;
+	private int pass;
+
+	private EntityPlayer listener;
+	private final Comparator<EntityLivingBase> nearest = new Comparator<EntityLivingBase>() {
+		@Override
+		public int compare(@Nonnull final EntityLivingBase o1, @Nonnull final EntityLivingBase o2) {
+			return Double.compare(o1.getDistanceSqToEntity(Isolator.this.listener),
+					o2.getDistanceSqToEntity(Isolator.this.listener));
+		}
+	};
+
 	public Isolator() {
 		this.blockMap = new BlockMap(this);
 	}
@@ -57,9 +88,87 @@ public class Isolator {
 			return;
 
 		this.generator.generateFootsteps(player);
+		generateNearbyFootsteps(player);
 		this.acoustics.think();
 	}
 
+	/*
+	 * Runs a generator for each entity within hearing range of the player.
+	 * Entities in the closer half of the range get full acoustic resolution;
+	 * the rest are simplified. Only the nearest entities up to the budget are
+	 * processed in a tick. The others hold on to their state and catch up the
+	 * next time around.
+	 */
+	protected void generateNearbyFootsteps(@Nonnull final EntityPlayer player) {
+		final World world = player.getEntityWorld();
+		if (world != this.world) {
+			releaseGenerators();
+			this.world = world;
+		}
+
+		this.pass++;
+
+		final int range = ModOptions.footstepsEntityRange;
+		if (range > 0) {
+			final double rangeSq = range * range;
+			for (final EntityPlayer entity : world.playerEntities) {
+				if (entity != player && !entity.isDead && !entity.isSpectator()
+						&& entity.getDistanceSqToEntity(player) < rangeSq)
+					this.candidates.add(entity);
+			}
+
+			if (this.candidates.size() > ModOptions.footstepsEntityBudget) {
+				this.listener = player;
+				Collections.sort(this.candidates, this.nearest);
+				this.listener = null;
+			}
+
+			final double fullSq = rangeSq / 4D;
+			for (int i = 0; i < this.candidates.size(); i++) {
+				final EntityLivingBase entity = this.candidates.get(i);
+				Generator gen = this.generators.get(entity.getEntityId());
+				if (i >= ModOptions.footstepsEntityBudget) {
+					// Over budget - keep existing state but don't process
+					if (gen != null)
+						gen.pass = this.pass;
+					continue;
+				}
+
+				if (gen == null) {
+					gen = this.pool.poll();
+					if (gen == null)
+						gen = new Generator(this);
+					gen.attach(entity, true);
+					this.generators.put(entity.getEntityId(), gen);
+				}
+
+				gen.pass = this.pass;
+				gen.setDetail(entity.getDistanceSqToEntity(player) < fullSq ? Generator.Detail.FULL
+						: Generator.Detail.SIMPLE);
+				gen.generateFootsteps(entity);
+			}
+
+			this.candidates.clear();
+		}
+
+		// Return generators for entities that have gone out of range
+		final TIntObjectIterator<Generator> itr = this.generators.iterator();
+		while (itr.hasNext()) {
+			itr.advance();
+			final Generator gen = itr.value();
+			if (gen.pass != this.pass) {
+				itr.remove();
+				if (this.pool.size() < POOL_SIZE)
+					this.pool.add(gen);
+			}
+		}
+	}
+
+	protected void releaseGenerators() {
+		this.generators.clear();
+		this.world = null;
+	}
+
 	//
 
 	@Nonnull
@@ -122,5 +231,7 @@ public class Isolator {
 
 	public void setGenerator(@Nonnull final Generator generator) {
 		this.generator = generator;
+		releaseGenerators();
+		this.pool.clear();
 	}
 }
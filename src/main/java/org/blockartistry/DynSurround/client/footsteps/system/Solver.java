@@ -24,7 +24,10 @@
 
 package org.blockartistry.DynSurround.client.footsteps.system;
 
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -37,13 +40,16 @@ import org.blockartistry.DynSurround.client.footsteps.interfaces.EventType;
 import org.blockartistry.DynSurround.client.footsteps.interfaces.IAcoustic;
 import org.blockartistry.DynSurround.client.footsteps.interfaces.IOptions.Option;
 import org.blockartistry.DynSurround.client.handlers.EnvironStateHandler.EnvironState;
+import org.blockartistry.DynSurround.registry.ArmorClass;
 import org.blockartistry.lib.MCHelper;
 import org.blockartistry.lib.MathStuff;
 import org.blockartistry.lib.MyUtils;
 import org.blockartistry.lib.WorldUtils;
+import gnu.trove.map.hash.TLongObjectHashMap;
 import net.minecraft.block.SoundType;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.math.BlockPos;
@@ -72,8 +78,53 @@ public class Solver {
 
 	private static final IBlockState AIR_STATE = Blocks.AIR.getDefaultState();
 
+	// Upper bound on cached positions before the cache is flushed
+	private static final int CACHE_SIZE = 2048;
+
+	private static class CacheEntry {
+		public IBlockState state;
+		public Association association;
+	}
+
+	/*
+	 * Key for interning concatenated acoustic arrays. Arrays are compared by
+	 * identity since they come from the BlockMap.
+	 */
+	private static class AcousticPair {
+		public IAcoustic[] first;
+		public IAcoustic[] second;
+
+		public AcousticPair() {
+		}
+
+		public AcousticPair(@Nonnull final AcousticPair pair) {
+			this.first = pair.first;
+			this.second = pair.second;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this.first) * 31 + System.identityHashCode(this.second);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (!(obj instanceof AcousticPair))
+				return false;
+			final AcousticPair pair = (AcousticPair) obj;
+			return this.first == pair.first && this.second == pair.second;
+		}
+	}
+
 	private final Isolator isolator;
 
+	private final TLongObjectHashMap<CacheEntry> cache = new TLongObjectHashMap<CacheEntry>();
+	private World cacheWorld;
+	private final AcousticPair probe = new AcousticPair();
+	private final Map<AcousticPair, IAcoustic[]> interned = new HashMap<AcousticPair, IAcoustic[]>();
+	private final Map<IAcoustic[], Association> messyCache = new IdentityHashMap<IAcoustic[], Association>();
+	private final Association noAssociation = new Association();
+
 	public Solver(@Nonnull final Isolator isolator) {
 		this.isolator = isolator;
 	}
@@ -81,7 +132,7 @@ public class Solver {
 	/**
 	 * Play an association.
 	 */
-	public void playAssociation(@Nonnull final EntityPlayer ply, @Nullable final Association assos,
+	public void playAssociation(@Nonnull final EntityLivingBase ply, @Nullable final Association assos,
 			@Nonnull final EventType eventType) {
 		if (assos != null && !assos.isNotEmitter()) {
 			if (assos.getNoAssociation()) {
@@ -93,9 +144,9 @@ public class Solver {
 	}
 
 	/**
-	 * Find an association for a player particular foot. This will fetch the
-	 * player angle and use it as a basis to find out what block is below their
-	 * feet (or which block is likely to be below their feet if the player is
+	 * Find an association for an entity particular foot. This will fetch the
+	 * entity angle and use it as a basis to find out what block is below their
+	 * feet (or which block is likely to be below their feet if the entity is
 	 * walking on the edge of a block when walking over non-emitting blocks like
 	 * air or water).<br>
 	 * <br>
@@ -104,13 +155,8 @@ public class Solver {
 	 * was found, but has no association in the blockmap.
 	 */
 	@Nonnull
-	public Association findAssociationForPlayer(@Nonnull final EntityPlayer player, final double verticalOffsetAsMinus,
-			final boolean isRightFoot) {
-		// Moved from routine below - why do all this calculation just to toss
-		// it away
-		if (MathStuff.abs(player.motionY) < 0.02)
-			return null; // Don't play sounds on every tiny bounce
-
+	public Association findAssociationForEntity(@Nonnull final EntityLivingBase player,
+			final double verticalOffsetAsMinus, final boolean isRightFoot) {
 		final float rotDegrees = MathStuff.wrapDegrees(player.rotationYaw);
 		final double rot = MathStuff.toRadians(rotDegrees);
 		final double xn = MathStuff.cos(rot);
@@ -122,15 +168,40 @@ public class Solver {
 		final double zz = player.posZ + zn * feetDistanceToCenter;
 		final BlockPos pos = new BlockPos(xx, minY - 0.1D - verticalOffsetAsMinus, zz);
 
-		final Association result = addSoundOverlay(findAssociationForLocation(player, pos));
+		final Association result = addSoundOverlay(player, findAssociationForLocation(player, pos));
 		if (result != null && !player.isJumping) {
 			final Vec3d printLocation = new Vec3d(xx, minY, zz);
-			if(Footprint.hasFootstepImprint(printLocation.addVector(0D, -0.5D, 0D)))
-				result.generatePrint(printLocation, rotDegrees, isRightFoot);
+			if (Footprint.hasFootstepImprint(printLocation.addVector(0D, -0.5D, 0D)))
+				return result.withPrint(printLocation, rotDegrees, isRightFoot);
 		}
 		return result;
 	}
 
+	/**
+	 * Reduced detail version of findAssociationForEntity() used for entities
+	 * some distance from the player. Only the block directly beneath the
+	 * entity is considered: no edge searching, carpets, foliage, armor
+	 * overlays, or footprints.
+	 */
+	@Nullable
+	public Association findAssociationForEntitySimple(@Nonnull final EntityLivingBase entity,
+			final double verticalOffsetAsMinus) {
+		final BlockPos pos = new BlockPos(entity.posX, entity.getEntityBoundingBox().minY - 0.1D - verticalOffsetAsMinus,
+				entity.posZ);
+		final IBlockState in = WorldUtils.getBlockState(EnvironState.getWorld(), pos);
+		if (in == AIR_STATE)
+			return null;
+
+		IAcoustic[] association = this.isolator.getBlockMap().getBlockAcoustics(in, pos);
+		if (association == null)
+			association = resolvePrimitive(in);
+
+		if (association == AcousticsManager.NOT_EMITTER)
+			return null;
+
+		return association == null ? new Association(in, pos) : new Association(in, pos, association);
+	}
+
 	/**
 	 * Find an association for a player, and a location. This will try to find
 	 * the best matching block on that location, or near that location, for
@@ -142,7 +213,8 @@ public class Solver {
 	 * was found, but has no association in the blockmap.
 	 */
 	@Nonnull
-	protected Association findAssociationForLocation(@Nonnull final EntityPlayer player, @Nonnull final BlockPos pos) {
+	protected Association findAssociationForLocation(@Nonnull final EntityLivingBase player,
+			@Nonnull final BlockPos pos) {
 		// if (MathStuff.abs(player.motionY) < 0.02)
 		// return null; // Don't play sounds on every tiny bounce
 
@@ -220,12 +292,50 @@ public class Solver {
 	 * carpet is non-emitting.<br>
 	 * Returns a string that begins with "_NO_ASSOCIATION" if the block is
 	 * valid, but has no association in the blockmap. If the carpet was
-	 * selected, this solves to the carpet.
+	 * selected, this solves to the carpet.<br>
+	 * <br>
+	 * Results are cached by position. An entry is reused as long as the state
+	 * at the position is unchanged; changes to the blocks above and below are
+	 * handled by invalidate().
 	 */
-	@Nonnull
-	public Association findAssociationForBlock(@Nonnull BlockPos pos) {
+	@Nullable
+	public Association findAssociationForBlock(@Nonnull final BlockPos pos) {
 		final World world = EnvironState.getWorld();
-		IBlockState in = WorldUtils.getBlockState(world, pos);
+		if (world != this.cacheWorld || this.cache.size() >= CACHE_SIZE) {
+			this.cache.clear();
+			this.cacheWorld = world;
+		}
+
+		final long key = pos.toLong();
+		final IBlockState in = WorldUtils.getBlockState(world, pos);
+		CacheEntry entry = this.cache.get(key);
+		if (entry == null) {
+			entry = new CacheEntry();
+			this.cache.put(key, entry);
+		} else if (entry.state == in) {
+			return entry.association;
+		}
+
+		entry.state = in;
+		entry.association = resolveAssociationForBlock(world, pos, in);
+		return entry.association;
+	}
+
+	/**
+	 * Discards cached associations that could be affected by a change to the
+	 * block at the specified position.
+	 */
+	public void invalidate(@Nonnull final BlockPos pos) {
+		if (this.cache.isEmpty())
+			return;
+		this.cache.remove(pos.toLong());
+		this.cache.remove(pos.up().toLong());
+		this.cache.remove(pos.down().toLong());
+	}
+
+	@Nullable
+	protected Association resolveAssociationForBlock(@Nonnull final World world, @Nonnull BlockPos pos,
+			@Nonnull IBlockState in) {
 		BlockPos tPos = pos.up();
 		final IBlockState above = WorldUtils.getBlockState(world, tPos);
 
@@ -265,7 +375,7 @@ public class Solver {
 					IAcoustic[] foliage = this.isolator.getBlockMap().getBlockSubstrateAcoustics(above, pos.up(),
 							Substrate.FOLIAGE);
 					if (foliage != null && foliage != AcousticsManager.NOT_EMITTER) {
-						association = MyUtils.concatenate(association, foliage);
+						association = concatenate(association, foliage);
 						DSurround.log().debug("Foliage detected");
 					}
 				}
@@ -307,6 +417,23 @@ public class Solver {
 		}
 	}
 
+	/*
+	 * Concatenates the two acoustic arrays, reusing the result of a previous
+	 * concatenation of the same arrays.
+	 */
+	@Nonnull
+	private IAcoustic[] concatenate(@Nonnull final IAcoustic[] first, @Nonnull final IAcoustic[] second) {
+		this.probe.first = first;
+		this.probe.second = second;
+		IAcoustic[] result = this.interned.get(this.probe);
+		if (result == null) {
+			result = MyUtils.concatenate(first, second);
+			this.interned.put(new AcousticPair(this.probe), result);
+		}
+		this.probe.first = this.probe.second = null;
+		return result;
+	}
+
 	@Nonnull
 	private IAcoustic[] resolvePrimitive(@Nonnull final IBlockState state) {
 
@@ -354,10 +481,9 @@ public class Solver {
 	 * Play special sounds that must stop the usual footstep figuring things out
 	 * process.
 	 */
-	public boolean playSpecialStoppingConditions(@Nonnull final EntityPlayer ply) {
+	public boolean playSpecialStoppingConditions(@Nonnull final EntityLivingBase ply, final double speed) {
 		if (ply.isInWater()) {
-			final float volume = (float) MathStuff
-					.sqrt(ply.motionX * ply.motionX + ply.motionY * ply.motionY + ply.motionZ * ply.motionZ) * 1.25F;
+			final float volume = (float) speed * 1.25F;
 			final ConfigOptions options = new ConfigOptions();
 			options.getMap().put(Option.GLIDING_VOLUME, volume > 1 ? 1 : volume);
 			// material water, see EntityLivingBase line 286
@@ -372,7 +498,7 @@ public class Solver {
 	/**
 	 * Tells if footsteps can be played.
 	 */
-	public boolean hasSpecialStoppingConditions(@Nonnull final EntityPlayer ply) {
+	public boolean hasSpecialStoppingConditions(@Nonnull final EntityLivingBase ply) {
 		return ply.isInWater();
 	}
 
@@ -433,7 +559,12 @@ public class Solver {
 		 */
 
 		if (found && association != null) {
-			return association == AcousticsManager.NOT_EMITTER ? null : new Association(association);
+			if (association == AcousticsManager.NOT_EMITTER)
+				return null;
+			Association result = this.messyCache.get(association);
+			if (result == null)
+				this.messyCache.put(association, result = new Association(association));
+			return result;
 		}
 		return null;
 	}
@@ -443,12 +574,22 @@ public class Solver {
 	 * aspects, such as armor being worn.
 	 */
 	@Nonnull
-	public Association addSoundOverlay(@Nullable Association assoc) {
+	public Association addSoundOverlay(@Nonnull final EntityLivingBase entity, @Nullable Association assoc) {
+
+		final ArmorClass armor;
+		final ArmorClass footArmor;
+		if (entity == EnvironState.getPlayer()) {
+			armor = EnvironState.getPlayerArmorClass();
+			footArmor = EnvironState.getPlayerFootArmorClass();
+		} else if (entity instanceof EntityPlayer) {
+			armor = ArmorClass.effectiveArmorClass((EntityPlayer) entity);
+			footArmor = ArmorClass.footArmorClass((EntityPlayer) entity);
+		} else {
+			return assoc;
+		}
 
-		final IAcoustic armorAddon = this.isolator.getAcoustics()
-				.getAcoustic(EnvironState.getPlayerArmorClass().getAcoustic());
-		IAcoustic footAddon = this.isolator.getAcoustics()
-				.getAcoustic(EnvironState.getPlayerFootArmorClass().getFootAcoustic());
+		final IAcoustic armorAddon = this.isolator.getAcoustics().getAcoustic(armor.getAcoustic());
+		IAcoustic footAddon = this.isolator.getAcoustics().getAcoustic(footArmor.getFootAcoustic());
 
 		if (armorAddon == null && footAddon == null)
 			return assoc;
@@ -457,14 +598,7 @@ public class Solver {
 		if (armorAddon == footAddon)
 			footAddon = null;
 
-		if (assoc == null)
-			assoc = new Association();
-		if (armorAddon != null)
-			assoc.add(armorAddon);
-		if (footAddon != null)
-			assoc.add(footAddon);
-
-		return assoc;
+		return (assoc == null ? this.noAssociation : assoc).withOverlay(armorAddon, footAddon);
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.blockartistry.DynSurround.client.fx;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.blockartistry.DynSurround.ModOptions;
+
+import net.minecraft.client.Minecraft;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Central particle spawn budget shared by the weather renderers, particle
+ * collections and particle systems. The budget is expressed in particles per
+ * client tick and is scaled down when frame time exceeds the configured
+ * target. Sources are satisfied in priority order so that when the budget
+ * shrinks the less important effects are the first to be thinned.
+ */
+@SideOnly(Side.CLIENT)
+public final class ParticleBudget {
+
+	/**
+	 * Particle sources. Declaration order is priority order - earlier entries
+	 * get their share of the budget first.
+	 */
+	public static enum Source {
+		WEATHER, FOOTPRINT, JET;
+	}
+
+	private static final Source[] SOURCES = Source.values();
+
+	// Small allowance each source always asks for so it can ramp up
+	private static final int MIN_ALLOWANCE = 4;
+	// Headroom applied to demand so a source can grow
+	private static final float DEMAND_HEADROOM = 1.25F;
+	private static final float DEMAND_SMOOTHING = 0.2F;
+	private static final float FRAME_SMOOTHING = 0.1F;
+	private static final float MIN_LOAD_FACTOR = 0.1F;
+	private static final float LOAD_DECREASE = 0.85F;
+	private static final float LOAD_INCREASE = 0.02F;
+
+	private static final int[] allowance = new int[SOURCES.length];
+	private static final int[] spawned = new int[SOURCES.length];
+	private static final int[] denied = new int[SOURCES.length];
+	private static final int[] lastSpawned = new int[SOURCES.length];
+	private static final int[] lastDenied = new int[SOURCES.length];
+	private static final float[] demand = new float[SOURCES.length];
+
+	private static long lastFrame = 0;
+	private static float frameTime = 0F;
+	private static float loadFactor = 1F;
+	private static int currentBudget = 0;
+
+	static {
+		reset();
+	}
+
+	private ParticleBudget() {
+
+	}
+
+	/**
+	 * Attempts to reserve budget for a single particle from the specified
+	 * source. If it returns false the caller should not spawn the particle.
+	 */
+	public static boolean tryAcquire(@Nonnull final Source source) {
+		final int idx = source.ordinal();
+		if (spawned[idx] >= allowance[idx]) {
+			denied[idx]++;
+			return false;
+		}
+		spawned[idx]++;
+		return true;
+	}
+
+	/**
+	 * Called at the start of each rendered frame to track frame time.
+	 */
+	public static void frame() {
+		final long now = System.nanoTime();
+		if (lastFrame != 0) {
+			final float ms = (now - lastFrame) / 1000000F;
+			frameTime += (ms - frameTime) * FRAME_SMOOTHING;
+		}
+		lastFrame = now;
+	}
+
+	/**
+	 * Called once a client tick to adjust the load factor based on frame time
+	 * and to hand out the budget for the next tick.
+	 */
+	public static void update() {
+		int fps = ModOptions.particleBudgetTargetFPS;
+		final int limit = Minecraft.getMinecraft().gameSettings.limitFramerate;
+		if (limit > 0 && limit < fps)
+			fps = limit;
+		final float targetTime = 1000F / Math.max(fps, 1);
+
+		// Back off quickly when frames run long, recover slowly
+		if (frameTime > targetTime * 1.1F)
+			loadFactor = Math.max(MIN_LOAD_FACTOR, loadFactor * LOAD_DECREASE);
+		else
+			loadFactor = Math.min(1F, loadFactor + LOAD_INCREASE);
+
+		currentBudget = (int) (ModOptions.particleBudget * loadFactor);
+
+		int remaining = currentBudget;
+		for (int i = 0; i < SOURCES.length; i++) {
+			final int requested = spawned[i] + denied[i];
+			demand[i] += (requested - demand[i]) * DEMAND_SMOOTHING;
+
+			final int want = (int) Math.ceil(demand[i] * DEMAND_HEADROOM) + MIN_ALLOWANCE;
+			allowance[i] = Math.min(remaining, want);
+			remaining -= allowance[i];
+
+			lastSpawned[i] = spawned[i];
+			lastDenied[i] = denied[i];
+			spawned[i] = 0;
+			denied[i] = 0;
+		}
+	}
+
+	public static void reset() {
+		for (int i = 0; i < SOURCES.length; i++) {
+			allowance[i] = MIN_ALLOWANCE;
+			spawned[i] = 0;
+			denied[i] = 0;
+			lastSpawned[i] = 0;
+			lastDenied[i] = 0;
+			demand[i] = 0F;
+		}
+		lastFrame = 0;
+		frameTime = 0F;
+		loadFactor = 1F;
+		currentBudget = ModOptions.particleBudget;
+	}
+
+	public static void diagnostics(@Nonnull final List<String> output) {
+		output.add(String.format("Particle Budget: %d/tick (load %.2f, frame %.1fms)", currentBudget, loadFactor,
+				frameTime));
+		for (int i = 0; i < SOURCES.length; i++)
+			output.add(String.format("  %s: %d/%d (denied %d)", SOURCES[i].name(), lastSpawned[i], allowance[i],
+					lastDenied[i]));
+	}
+
+}
@@ -24,15 +24,19 @@
 
 package org.blockartistry.DynSurround.client.fx;
 
+import java.util.List;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import org.blockartistry.DynSurround.DSurround;
+import org.blockartistry.DynSurround.client.fx.ParticleBudget.Source;
 import org.blockartistry.DynSurround.client.fx.particle.ParticleHelper;
 import org.blockartistry.DynSurround.client.fx.particle.mote.IParticleMote;
 import org.blockartistry.DynSurround.client.fx.particle.mote.MoteEmoji;
 import org.blockartistry.DynSurround.client.fx.particle.mote.MoteFireFly;
 import org.blockartistry.DynSurround.client.fx.particle.mote.MoteFootprint;
+import org.blockartistry.DynSurround.client.fx.particle.mote.MotePool;
 import org.blockartistry.DynSurround.client.fx.particle.mote.MoteRainSplash;
 import org.blockartistry.DynSurround.client.fx.particle.mote.MoteWaterRipple;
 import org.blockartistry.DynSurround.client.fx.particle.mote.MoteWaterSpray;
@@ -142,12 +146,24 @@ public final class ParticleCollections {
 	private final static CollectionHelper theFireFlies = new LightedCollectionHelper(ParticleCollectionFireFly.class,
 			FIREFLY_TEXTURE);
 
+	// Free lists for the high churn mote types
+	private static final int POOL_SIZE = 2048;
+	private final static MotePool<MoteWaterRipple> ripplePool = new MotePool<MoteWaterRipple>("Ripple", POOL_SIZE);
+	private final static MotePool<MoteWaterSpray> sprayPool = new MotePool<MoteWaterSpray>("Spray", POOL_SIZE);
+	private final static MotePool<MoteRainSplash> splashPool = new MotePool<MoteRainSplash>("RainSplash", POOL_SIZE);
+	private final static MotePool<MoteFootprint> printPool = new MotePool<MoteFootprint>("Footprint", POOL_SIZE);
+
 	@Nullable
 	public static IParticleMote addWaterRipple(@Nonnull final World world, final double x, final double y,
 			final double z) {
 		IParticleMote mote = null;
-		if (theRipples.get().canFit()) {
-			mote = new MoteWaterRipple(world, x, y, z);
+		if (theRipples.get().canFit() && ParticleBudget.tryAcquire(Source.WEATHER)) {
+			MoteWaterRipple ripple = ripplePool.acquire();
+			if (ripple == null)
+				ripple = ripplePool.track(new MoteWaterRipple(world, x, y, z));
+			else
+				ripple.reset(world, x, y, z);
+			mote = ripple;
 			theRipples.get().addParticle(mote);
 		}
 		return mote;
@@ -156,8 +172,13 @@ public final class ParticleCollections {
 	public static IParticleMote addWaterSpray(@Nonnull final World world, final double x, final double y,
 			final double z, final double dX, final double dY, final double dZ) {
 		IParticleMote mote = null;
-		if (theSprays.get().canFit()) {
-			mote = new MoteWaterSpray(world, x, y, z, dX, dY, dZ);
+		if (theSprays.get().canFit() && ParticleBudget.tryAcquire(Source.JET)) {
+			MoteWaterSpray spray = sprayPool.acquire();
+			if (spray == null)
+				spray = sprayPool.track(new MoteWaterSpray(world, x, y, z, dX, dY, dZ));
+			else
+				spray.reset(world, x, y, z, dX, dY, dZ);
+			mote = spray;
 			theSprays.get().addParticle(mote);
 		}
 		return mote;
@@ -166,13 +187,20 @@ public final class ParticleCollections {
 	public static IParticleMote addRainSplash(@Nonnull final World world, final double x, final double y,
 			final double z) {
 		IParticleMote mote = null;
-		if (theSprays.get().canFit()) {
-			mote = new MoteRainSplash(world, x, y, z);
+		if (theSprays.get().canFit() && ParticleBudget.tryAcquire(Source.WEATHER)) {
+			MoteRainSplash splash = splashPool.acquire();
+			if (splash == null)
+				splash = splashPool.track(new MoteRainSplash(world, x, y, z));
+			else
+				splash.reset(world, x, y, z);
+			mote = splash;
 			theSprays.get().addParticle(mote);
 		}
 		return mote;
 	}
 
+	// Not budgeted: an emoji is one long lived mote per entity and is only
+	// requested when the entity's state changes, so a denial would stick.
 	public static IParticleMote addEmoji(@Nonnull final Entity entity) {
 		IParticleMote mote = null;
 		if (theEmojis.get().canFit()) {
@@ -185,8 +213,13 @@ public final class ParticleCollections {
 	public static IParticleMote addFootprint(@Nonnull final World world, final double x, final double y, final double z,
 			final float rot, final boolean isRight) {
 		IParticleMote mote = null;
-		if (thePrints.get().canFit()) {
-			mote = new MoteFootprint(world, x, y, z, rot, isRight);
+		if (thePrints.get().canFit() && ParticleBudget.tryAcquire(Source.FOOTPRINT)) {
+			MoteFootprint print = printPool.acquire();
+			if (print == null)
+				print = printPool.track(new MoteFootprint(world, x, y, z, rot, isRight));
+			else
+				print.reset(world, x, y, z, rot, isRight);
+			mote = print;
 			thePrints.get().addParticle(mote);
 		}
 		return mote;
@@ -194,10 +227,24 @@ public final class ParticleCollections {
 
 	public static IParticleMote addFireFly(@Nonnull final World world, final double x, final double y, final double z) {
 		IParticleMote mote = null;
-		if (theFireFlies.get().canFit()) {
+		if (theFireFlies.get().canFit() && ParticleBudget.tryAcquire(Source.JET)) {
 			mote = new MoteFireFly(world, x, y, z);
 			theFireFlies.get().addParticle(mote);
 		}
 		return mote;
 	}
+
+	public static void clearPools() {
+		ripplePool.clear();
+		sprayPool.clear();
+		splashPool.clear();
+		printPool.clear();
+	}
+
+	public static void diagnostics(@Nonnull final List<String> output) {
+		output.add(ripplePool.toString());
+		output.add(sprayPool.toString());
+		output.add(splashPool.toString());
+		output.add(printPool.toString());
+	}
 }
@@ -56,6 +56,11 @@ public final class ParticleMoteAdapter implements IParticleMote {
 		this.particle.onUpdate();
 	}
 
+	@Override
+	public void release() {
+		// Vanilla particles are not pooled
+	}
+
 	@Override
 	public void renderParticle(BufferBuilder buffer, Entity entityIn, float partialTicks, float rotX, float rotZ,
 			float rotYZ, float rotXY, float rotXZ) {
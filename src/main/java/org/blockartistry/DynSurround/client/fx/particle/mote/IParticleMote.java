@@ -58,8 +58,29 @@ public interface IParticleMote {
 		}
 	};
 
+	/**
+	 * Predicate used by a ParticleCollection to update a mote, and if it is
+	 * dead release it so it can be recycled.
+	 */
+	public static final Predicate<IParticleMote> UPDATE_REMOVE_RELEASE = new Predicate<IParticleMote>() {
+		@Override
+		public boolean apply(@Nonnull final IParticleMote mote) {
+			mote.onUpdate();
+			if (mote.isAlive())
+				return false;
+			mote.release();
+			return true;
+		}
+	};
+
 	boolean isAlive();
 
+	/**
+	 * Called by the owner of the mote when it has been removed and will no
+	 * longer be referenced.
+	 */
+	void release();
+
 	void onUpdate();
 
 	void renderParticle(final BufferBuilder buffer, final Entity entityIn, final float partialTicks, final float rotX,
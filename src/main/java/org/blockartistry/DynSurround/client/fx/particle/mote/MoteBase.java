@@ -46,7 +46,9 @@ public abstract class MoteBase implements IParticleMote {
 	protected static final Random RANDOM = XorShiftRandom.current();
 	protected static final RenderManager RENDERER = Minecraft.getMinecraft().getRenderManager();
 
-	protected final World world;
+	protected World world;
+	protected MotePool<? extends MoteBase> pool;
+	protected int releaseTick;
 
 	protected boolean isAlive = true;
 	protected int age;
@@ -66,7 +68,12 @@ public abstract class MoteBase implements IParticleMote {
 	protected float alpha;
 
 	protected MoteBase(@Nonnull final World world, final double x, final double y, final double z) {
+		this.configure(world, x, y, z);
+	}
+
+	private void configure(@Nonnull final World world, final double x, final double y, final double z) {
 		this.world = world;
+		this.isAlive = true;
 		this.age = 0;
 		this.posX = x;
 		this.posY = y;
@@ -75,6 +82,27 @@ public abstract class MoteBase implements IParticleMote {
 		this.red = this.green = this.blue = this.alpha = 1F;
 	}
 
+	/**
+	 * Reinitializes the mote so it can be reused from a MotePool. Derived
+	 * classes that are pooled provide a reset() that matches their
+	 * constructor.
+	 */
+	protected void reset(@Nonnull final World world, final double x, final double y, final double z) {
+		this.configure(world, x, y, z);
+	}
+
+	/**
+	 * Hands the mote back to the pool it came from, if any. Called by the
+	 * owning ParticleCollection when the mote is removed.
+	 */
+	@Override
+	public void release() {
+		if (this.pool != null) {
+			this.world = null;
+			this.pool.recycle(this);
+		}
+	}
+
 	@Override
 	public boolean isAlive() {
 		return this.isAlive;
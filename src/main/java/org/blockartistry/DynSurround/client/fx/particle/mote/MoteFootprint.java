@@ -54,21 +54,30 @@ public class MoteFootprint extends MoteBase {
 	// multiple overlapping prints.
 	private static float zFighter = 0F;
 
-	protected final boolean isSnowLayer;
-	protected final BlockPos downPos;
+	protected boolean isSnowLayer;
+	protected BlockPos downPos;
 
-	protected final float texU1, texU2;
-	protected final float texV1, texV2;
+	protected float texU1, texU2;
+	protected float texV1, texV2;
 
-	protected final Vec2f firstPoint;
-	protected final Vec2f secondPoint;
-	protected final Vec2f thirdPoint;
-	protected final Vec2f fourthPoint;
+	protected Vec2f firstPoint;
+	protected Vec2f secondPoint;
+	protected Vec2f thirdPoint;
+	protected Vec2f fourthPoint;
 
 	public MoteFootprint(@Nonnull final World world, final double x, final double y, final double z,
 			final float rotation, final boolean isRight) {
 		super(world, x, y, z);
+		this.configure(rotation, isRight);
+	}
+
+	public void reset(@Nonnull final World world, final double x, final double y, final double z,
+			final float rotation, final boolean isRight) {
+		super.reset(world, x, y, z);
+		this.configure(rotation, isRight);
+	}
 
+	private void configure(final float rotation, final boolean isRight) {
 		this.maxAge = 200;
 
 		if (++zFighter > 20)
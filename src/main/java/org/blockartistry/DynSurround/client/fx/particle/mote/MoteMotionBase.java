@@ -47,6 +47,10 @@ public abstract class MoteMotionBase extends MoteBase {
 	protected MoteMotionBase(@Nonnull final World world, final double x, final double y, final double z,
 			final double dX, final double dY, final double dZ) {
 		super(world, x, y, z);
+		this.configure(dX, dY, dZ);
+	}
+
+	private void configure(final double dX, final double dY, final double dZ) {
 		this.prevX = this.posX;
 		this.prevY = this.posY;
 		this.prevZ = this.posZ;
@@ -56,6 +60,12 @@ public abstract class MoteMotionBase extends MoteBase {
 		this.gravity = 0.06D;
 	}
 
+	protected void reset(@Nonnull final World world, final double x, final double y, final double z, final double dX,
+			final double dY, final double dZ) {
+		super.reset(world, x, y, z);
+		this.configure(dX, dY, dZ);
+	}
+
 	@Override
 	protected float renderX(final float partialTicks) {
 		return (float) (this.prevX + (this.posX - this.prevX) * (double) partialTicks - interpX());
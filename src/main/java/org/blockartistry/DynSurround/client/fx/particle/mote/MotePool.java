@@ -0,0 +1,110 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.blockartistry.DynSurround.client.fx.particle.mote;
+
+import java.util.ArrayDeque;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.blockartistry.DynSurround.client.handlers.EnvironStateHandler.EnvironState;
+
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Free list of motes of a given type. Motes released by their collection are
+ * queued and handed back out in FIFO order. A released mote is held for a
+ * couple of ticks before reuse because a particle system may still have a
+ * reference to it and needs a chance to see that it died.
+ */
+@SideOnly(Side.CLIENT)
+public final class MotePool<T extends MoteBase> {
+
+	private static final int QUARANTINE_TICKS = 2;
+
+	private final String name;
+	private final int maxSize;
+	private final ArrayDeque<T> free;
+
+	private int allocations;
+	private int reuses;
+
+	public MotePool(@Nonnull final String name, final int maxSize) {
+		this.name = name;
+		this.maxSize = maxSize;
+		this.free = new ArrayDeque<T>(maxSize);
+	}
+
+	/**
+	 * Obtains a mote from the free list. If null is returned the caller needs
+	 * to create a new mote and hand it to track().
+	 */
+	@Nullable
+	public T acquire() {
+		final T mote = this.free.peekFirst();
+		if (mote == null)
+			return null;
+
+		// A negative age means the tick counter was reset
+		final int age = EnvironState.getTickCounter() - mote.releaseTick;
+		if (age < 0 || age >= QUARANTINE_TICKS) {
+			this.free.pollFirst();
+			this.reuses++;
+			return mote;
+		}
+		return null;
+	}
+
+	/**
+	 * Associates a newly created mote with the pool so that it comes back to
+	 * the pool when released.
+	 */
+	@Nonnull
+	public T track(@Nonnull final T mote) {
+		mote.pool = this;
+		this.allocations++;
+		return mote;
+	}
+
+	@SuppressWarnings("unchecked")
+	void recycle(@Nonnull final MoteBase mote) {
+		if (this.free.size() < this.maxSize) {
+			mote.releaseTick = EnvironState.getTickCounter();
+			this.free.addLast((T) mote);
+		}
+	}
+
+	public void clear() {
+		this.free.clear();
+	}
+
+	@Override
+	@Nonnull
+	public String toString() {
+		return String.format("%s pool: %d free, %d allocated, %d reused", this.name, this.free.size(),
+				this.allocations, this.reuses);
+	}
+
+}
@@ -34,7 +34,16 @@ public class MoteRainSplash extends MoteWaterSpray {
 
 	public MoteRainSplash(final World world, final double x, final double y, final double z) {
 		super(world, x, y, z, 0, 0, 0);
+		this.configure();
+	}
+
+	@Override
+	public void reset(final World world, final double x, final double y, final double z) {
+		super.reset(world, x, y, z, 0, 0, 0);
+		this.configure();
+	}
 
+	private void configure() {
 		// Setup motion
 		this.motionX = (RANDOM.nextDouble() * 2.0D - 1.0D) * 0.4000000059604645D;
 		this.motionY = (RANDOM.nextDouble() * 2.0D - 1.0D) * 0.4000000059604645D;
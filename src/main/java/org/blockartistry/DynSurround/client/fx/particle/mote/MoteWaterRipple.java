@@ -35,13 +35,22 @@ public class MoteWaterRipple extends MoteBase {
 
 	private static final float TEX_SIZE_HALF = 0.5F;
 
-	protected final float growthRate;
+	protected float growthRate;
 	protected float scale;
 	protected float scaledWidth;
 
 	public MoteWaterRipple(final World world, final double x, final double y, final double z) {
 		super(world, x, y, z);
+		this.configure();
+	}
+
+	@Override
+	public void reset(final World world, final double x, final double y, final double z) {
+		super.reset(world, x, y, z);
+		this.configure();
+	}
 
+	private void configure() {
 		this.maxAge = 12 + RANDOM.nextInt(8);
 		this.growthRate = this.maxAge / 500F;
 		this.scale = this.growthRate;
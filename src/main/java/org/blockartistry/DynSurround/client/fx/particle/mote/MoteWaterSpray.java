@@ -35,15 +35,25 @@ public class MoteWaterSpray extends MoteMotionBase {
 
 	protected float scale;
 
-	protected final float texU1, texU2;
-	protected final float texV1, texV2;
-	protected final float f4;
+	protected float texU1, texU2;
+	protected float texV1, texV2;
+	protected float f4;
 
 	public MoteWaterSpray(final World world, final double x, final double y, final double z, final double dX,
 			final double dY, final double dZ) {
 
 		super(world, x, y, z, dX, dY, dZ);
+		this.configure();
+	}
+
+	@Override
+	public void reset(final World world, final double x, final double y, final double z, final double dX,
+			final double dY, final double dZ) {
+		super.reset(world, x, y, z, dX, dY, dZ);
+		this.configure();
+	}
 
+	private void configure() {
 		this.maxAge = (int) (8.0D / (RANDOM.nextDouble() * 0.8D + 0.2D));
 		this.scale = (RANDOM.nextFloat() * 0.5F + 0.5F) * 2.0F;
 
@@ -89,7 +89,7 @@ public class ParticleCollection extends Particle {
 			return;
 
 		// Update state and remove the dead ones
-		this.myParticles.removeIf(IParticleMote.UPDATE_REMOVE);
+		this.myParticles.removeIf(IParticleMote.UPDATE_REMOVE_RELEASE);
 
 		if (this.shouldDie()) {
 			this.setExpired();
@@ -27,6 +27,8 @@ package org.blockartistry.DynSurround.client.fx.particle.system;
 import java.util.Random;
 import javax.annotation.Nonnull;
 
+import org.blockartistry.DynSurround.client.fx.ParticleBudget;
+import org.blockartistry.DynSurround.client.fx.ParticleBudget.Source;
 import org.blockartistry.DynSurround.client.fx.particle.ParticleHelper;
 import org.blockartistry.DynSurround.client.fx.particle.ParticleMoteAdapter;
 import org.blockartistry.DynSurround.client.fx.particle.mote.IParticleMote;
@@ -99,7 +101,7 @@ public abstract class ParticleSystem {
 	 * Minecraft particle manager.
 	 */
 	public void addParticle(@Nonnull final Particle particle) {
-		if (hasSpace()) {
+		if (hasSpace() && ParticleBudget.tryAcquire(Source.JET)) {
 			this.myParticles.add(new ParticleMoteAdapter(particle));
 			ParticleHelper.addParticle(particle);
 		}
@@ -24,16 +24,18 @@
 
 package org.blockartistry.DynSurround.client.handlers;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.BitSet;
 
 import javax.annotation.Nonnull;
 
 import org.blockartistry.DynSurround.ModOptions;
+import org.blockartistry.DynSurround.client.event.AreaSurveyEvent;
 import org.blockartistry.DynSurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.blockartistry.DynSurround.client.sound.SoundEffect;
 import org.blockartistry.DynSurround.registry.BiomeInfo;
 import org.blockartistry.DynSurround.registry.BiomeRegistry;
+import org.blockartistry.DynSurround.registry.BiomeSoundTable;
 import org.blockartistry.DynSurround.registry.RegistryManager;
 import org.blockartistry.DynSurround.registry.RegistryManager.RegistryType;
 
@@ -42,6 +44,7 @@ import gnu.trove.iterator.TObjectIntIterator;
 import gnu.trove.map.hash.TObjectFloatHashMap;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.world.World;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import net.minecraftforge.fml.relauncher.Side;
 
@@ -54,18 +57,50 @@ public class AreaSoundEffectHandler extends EffectHandlerBase {
 		return EnvironState.isPlayerUnderground() || !EnvironState.isPlayerInside();
 	}
 
-	private static void getBiomeSounds(@Nonnull final TObjectFloatHashMap<SoundEffect> result) {
-		// Need to collect sounds from all the applicable biomes
-		// along with their weights.
+	// Sounds of all the surveyed biomes as a mask over the sound table of the
+	// registry, along with their accumulated weights. Only rebuilt when the
+	// area survey reports that the biome mix changed; the sound conditions are
+	// still evaluated every scan.
+	private BiomeSoundTable table;
+	private final BitSet candidates = new BitSet();
+	private final BitSet matched = new BitSet();
+	private float[] weights = new float[0];
+	private boolean biomeSoundsDirty = true;
+
+	private final TObjectFloatHashMap<SoundEffect> sounds = new TObjectFloatHashMap<SoundEffect>();
+
+	private void updateBiomeSounds(@Nonnull final BiomeSoundTable table) {
+		this.table = table;
+		if (this.weights.length < table.size())
+			this.weights = new float[table.size()];
+		else
+			Arrays.fill(this.weights, 0F);
+
+		this.candidates.clear();
 		final TObjectIntIterator<BiomeInfo> info = AreaSurveyHandler.getBiomes().iterator();
 		while (info.hasNext()) {
 			info.advance();
-			final List<SoundEffect> bs = new ArrayList<SoundEffect>();
-			info.key().findSoundMatches(bs);
-			for (final SoundEffect sound : bs) {
-				final int w = info.value();
-				result.adjustOrPutValue(sound, w, w);
-			}
+			final BitSet mask = info.key().getSoundMask();
+			final int w = info.value();
+			for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1))
+				this.weights[i] += w;
+			this.candidates.or(mask);
+		}
+		this.biomeSoundsDirty = false;
+	}
+
+	private void getBiomeSounds(@Nonnull final BiomeSoundTable table,
+			@Nonnull final TObjectFloatHashMap<SoundEffect> result) {
+		if (this.biomeSoundsDirty || this.table != table)
+			updateBiomeSounds(table);
+
+		// Need to collect sounds from all the applicable biomes
+		// along with their weights.
+		this.matched.clear();
+		table.matches(this.candidates, this.matched);
+		for (int i = this.matched.nextSetBit(0); i >= 0; i = this.matched.nextSetBit(i + 1)) {
+			final float w = this.weights[i];
+			result.adjustOrPutValue(table.get(i), w, w);
 		}
 
 		// Scale the volumes in the resulting list based on the weights
@@ -95,25 +130,41 @@ public class AreaSoundEffectHandler extends EffectHandlerBase {
 				&& EnvironState.getWorld().isBlockLoaded(EnvironState.getPlayerPosition()));
 	}
 
+	@Override
+	public void onConnect() {
+		this.table = null;
+		this.biomeSoundsDirty = true;
+	}
+
+	@SubscribeEvent
+	public void onAreaSurvey(@Nonnull final AreaSurveyEvent event) {
+		this.biomeSoundsDirty = true;
+	}
+
 	@Override
 	public void process(@Nonnull final World world, @Nonnull final EntityPlayer player) {
 
 		if (skipTick(player))
 			return;
 
-		final TObjectFloatHashMap<SoundEffect> sounds = new TObjectFloatHashMap<SoundEffect>();
+		// Each distinct condition is evaluated at most once per scan
+		final BiomeSoundTable table = this.registry.getSoundTable();
+		table.beginScan();
+
+		final TObjectFloatHashMap<SoundEffect> sounds = this.sounds;
+		sounds.clear();
 		if (doBiomeSounds())
-			getBiomeSounds(sounds);
+			getBiomeSounds(table, sounds);
 
-		final List<SoundEffect> playerSounds = new ArrayList<SoundEffect>();
-		this.registry.PLAYER_INFO.findSoundMatches(playerSounds);
+		this.matched.clear();
+		table.matches(this.registry.PLAYER_INFO.getSoundMask(), this.matched);
 		if (ModOptions.enableBattleMusic)
-			this.registry.BATTLE_MUSIC_INFO.findSoundMatches(playerSounds);
+			table.matches(this.registry.BATTLE_MUSIC_INFO.getSoundMask(), this.matched);
 		if (EnvironState.inVillage())
-			this.registry.VILLAGE_INFO.findSoundMatches(playerSounds);
+			table.matches(this.registry.VILLAGE_INFO.getSoundMask(), this.matched);
 
-		for (final SoundEffect effect : playerSounds)
-			sounds.put(effect, 1.0F);
+		for (int i = this.matched.nextSetBit(0); i >= 0; i = this.matched.nextSetBit(i + 1))
+			sounds.put(table.get(i), 1.0F);
 
 		SoundEffectHandler.INSTANCE.queueAmbientSounds(sounds);
 
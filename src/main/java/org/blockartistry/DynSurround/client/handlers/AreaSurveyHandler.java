@@ -32,22 +32,23 @@ import javax.annotation.Nonnull;
 
 import org.blockartistry.DynSurround.ModOptions;
 import org.blockartistry.DynSurround.client.handlers.EnvironStateHandler.EnvironState;
+import org.blockartistry.DynSurround.client.event.AreaSurveyEvent;
+import org.blockartistry.DynSurround.client.event.BlockUpdateEvent;
+import org.blockartistry.DynSurround.client.event.RegistryEvent;
 import org.blockartistry.DynSurround.client.handlers.scanners.AlwaysOnBlockEffectScanner;
+import org.blockartistry.DynSurround.client.handlers.scanners.AreaSurvey;
+import org.blockartistry.DynSurround.client.handlers.scanners.BiomeWindow;
 import org.blockartistry.DynSurround.client.handlers.scanners.RandomBlockEffectScanner;
 import org.blockartistry.DynSurround.registry.BiomeInfo;
-import org.blockartistry.DynSurround.registry.BiomeRegistry;
-import org.blockartistry.DynSurround.registry.RegistryManager;
-import org.blockartistry.DynSurround.registry.RegistryManager.RegistryType;
 import org.blockartistry.lib.MathStuff;
-import org.blockartistry.lib.WorldUtils;
 
 import gnu.trove.map.custom_hash.TObjectIntCustomHashMap;
 import gnu.trove.strategy.IdentityHashingStrategy;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3i;
 import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
@@ -57,21 +58,30 @@ public final class AreaSurveyHandler extends EffectHandlerBase {
 	private static final int BIOME_SURVEY_RANGE = 6;
 	private static final int INSIDE_SURVEY_RANGE = 3;
 
+	// Needs to be large enough to cover the area the fog scanner looks at
+	public static final int AREA_SURVEY_RANGE = 10;
+
 	private static final Cell[] cells;
 	private static final float TOTAL_POINTS;
 
 	// Used to throttle processing
 	private static final int SURVEY_INTERVAL = 2;
 
-	private static int biomeArea;
-	private static final TObjectIntCustomHashMap<BiomeInfo> weights = new TObjectIntCustomHashMap<BiomeInfo>(
+	private static final AreaSurvey survey = new AreaSurvey(AREA_SURVEY_RANGE);
+
+	private static final BiomeWindow window = new BiomeWindow(survey, BIOME_SURVEY_RANGE);
+
+	// Used when the player is in a fake biome, such as underground
+	private static final TObjectIntCustomHashMap<BiomeInfo> fakeWeights = new TObjectIntCustomHashMap<BiomeInfo>(
 			IdentityHashingStrategy.INSTANCE);
-	private static final BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
+
+	private static int biomeArea;
+	private static TObjectIntCustomHashMap<BiomeInfo> weights = fakeWeights;
 
 	// "Finger print" of the last area survey.
 	private static BiomeInfo surveyedBiome = null;
-	private static int surveyedDimension = 0;
-	private static BlockPos surveyedPosition = BlockPos.ORIGIN;
+	private static boolean surveyedFake = false;
+	private static boolean surveyDirty = true;
 
 	private static final float INSIDE_THRESHOLD = 1.0F - 65.0F / 176.0F;
 	private static float ceilingCoverageRatio = 0.0F;
@@ -79,7 +89,6 @@ public final class AreaSurveyHandler extends EffectHandlerBase {
 
 	protected final RandomBlockEffectScanner effects = new RandomBlockEffectScanner(ModOptions.specialEffectRange);
 	protected final AlwaysOnBlockEffectScanner alwaysOn = new AlwaysOnBlockEffectScanner(ModOptions.specialEffectRange);
-	protected final BiomeRegistry registry;
 
 	static {
 
@@ -103,6 +112,11 @@ public final class AreaSurveyHandler extends EffectHandlerBase {
 		return biomeArea;
 	}
 
+	@Nonnull
+	public static AreaSurvey getSurvey() {
+		return survey;
+	}
+
 	public static boolean isReallyInside() {
 		return reallyInside;
 	}
@@ -112,10 +126,10 @@ public final class AreaSurveyHandler extends EffectHandlerBase {
 	}
 
 	private static void doCeilingCoverageRatio() {
-		final BlockPos pos = EnvironState.getPlayerPosition();
+		final int playerY = EnvironState.getPlayerPosition().getY();
 		float score = 0.0F;
 		for (int i = 0; i < cells.length; i++)
-			score += cells[i].score(pos);
+			score += cells[i].score(playerY);
 
 		ceilingCoverageRatio = 1.0F - (score / TOTAL_POINTS);
 		reallyInside = ceilingCoverageRatio > INSIDE_THRESHOLD;
@@ -123,31 +137,42 @@ public final class AreaSurveyHandler extends EffectHandlerBase {
 
 	public AreaSurveyHandler() {
 		super("AreaSurveyEffectHandler");
+	}
 
-		this.registry = RegistryManager.<BiomeRegistry>get(RegistryType.BIOME);
+	private static void resetSurvey() {
+		biomeArea = 0;
+		window.clear();
+		fakeWeights.clear();
+		weights = fakeWeights;
+		surveyedBiome = null;
+		surveyedFake = false;
+		surveyDirty = true;
 	}
 
 	/*
-	 * Perform a biome survey around the player at the specified range.
+	 * Perform a biome survey around the player at the specified range. The
+	 * weights are maintained as a sliding window so only the columns that
+	 * came into range are examined. Returns true if the weights changed.
 	 */
-	private void doSurvey() {
-		biomeArea = 0;
-		weights.clear();
-
-		if (EnvironState.getPlayerBiome().isFake()) {
+	private static boolean doSurvey() {
+		final BiomeInfo playerBiome = EnvironState.getPlayerBiome();
+
+		if (playerBiome.isFake()) {
+			if (surveyedFake && fakeWeights.containsKey(playerBiome))
+				return false;
+			resetSurvey();
+			surveyedFake = true;
 			biomeArea = 1;
-			weights.put(EnvironState.getPlayerBiome(), 1);
-		} else {
-			final World world = EnvironState.getWorld();
-
-			for (int dX = -BIOME_SURVEY_RANGE; dX <= BIOME_SURVEY_RANGE; dX++)
-				for (int dZ = -BIOME_SURVEY_RANGE; dZ <= BIOME_SURVEY_RANGE; dZ++) {
-					biomeArea++;
-					mutable.setPos(surveyedPosition.getX() + dX, surveyedPosition.getY(), surveyedPosition.getZ() + dZ);
-					final BiomeInfo biome = this.registry.get(world.getBiome(mutable));
-					weights.adjustOrPutValue(biome, 1, 1);
-				}
+			fakeWeights.put(playerBiome, 1);
+			return true;
 		}
+
+		if (surveyedFake)
+			resetSurvey();
+
+		weights = window.getWeights();
+		biomeArea = window.getArea();
+		return window.update();
 	}
 
 	@Override
@@ -156,18 +181,22 @@ public final class AreaSurveyHandler extends EffectHandlerBase {
 		this.effects.update();
 		this.alwaysOn.update();
 
+		// Keep the survey grid centered on the player every tick so
+		// that downstream handlers see current data. Only columns that
+		// come into range are sampled.
+		if (survey.update(world, EnvironState.getPlayerPosition()))
+			surveyDirty = true;
+
 		// Only process on the correct interval
 		if (EnvironState.getTickCounter() % SURVEY_INTERVAL != 0)
 			return;
 
-		final BlockPos position = EnvironState.getPlayerPosition();
-
-		if (surveyedBiome != EnvironState.getPlayerBiome() || surveyedDimension != EnvironState.getDimensionId()
-				|| surveyedPosition.compareTo(position) != 0) {
+		if (surveyDirty || surveyedBiome != EnvironState.getPlayerBiome()) {
+			final boolean changed = doSurvey();
 			surveyedBiome = EnvironState.getPlayerBiome();
-			surveyedDimension = EnvironState.getDimensionId();
-			surveyedPosition = position;
-			doSurvey();
+			surveyDirty = false;
+			if (changed)
+				MinecraftForge.EVENT_BUS.post(new AreaSurveyEvent(biomeArea));
 		}
 
 		doCeilingCoverageRatio();
@@ -175,20 +204,38 @@ public final class AreaSurveyHandler extends EffectHandlerBase {
 
 	@Override
 	public void onConnect() {
-		weights.clear();
+		survey.clear();
+		resetSurvey();
 		MinecraftForge.EVENT_BUS.register(this.alwaysOn);
 	}
 
 	@Override
 	public void onDisconnect() {
 		MinecraftForge.EVENT_BUS.unregister(this.alwaysOn);
+		survey.clear();
+	}
+
+	@SubscribeEvent
+	public void onBlockUpdate(@Nonnull final BlockUpdateEvent event) {
+		survey.invalidate(event.pos);
+	}
+
+	/*
+	 * BiomeInfo instances are rebuilt when the configuration reloads so the
+	 * survey has to start over.
+	 */
+	@SubscribeEvent
+	public void registryReloadEvent(@Nonnull final RegistryEvent.Reload event) {
+		if (event.getSide() == Side.CLIENT) {
+			survey.clear();
+			resetSurvey();
+		}
 	}
 
 	private static final class Cell implements Comparable<Cell> {
 
 		private final Vec3i offset;
 		private final float points;
-		private final BlockPos.MutableBlockPos working;
 
 		public Cell(@Nonnull final Vec3i offset, final int range) {
 			this.offset = offset;
@@ -196,18 +243,15 @@ public final class AreaSurveyHandler extends EffectHandlerBase {
 			final float zV = range - MathStuff.abs(offset.getZ()) + 1;
 			final float candidate = Math.min(xV, zV);
 			this.points = candidate * candidate;
-			this.working = new BlockPos.MutableBlockPos();
 		}
 
 		public float potentialPoints() {
 			return this.points;
 		}
 
-		public float score(@Nonnull final BlockPos playerPos) {
-			this.working.setPos(playerPos.getX() + this.offset.getX(), playerPos.getY() + this.offset.getY(),
-					playerPos.getZ() + this.offset.getZ());
-			final int y = WorldUtils.getTopSolidOrLiquidBlock(EnvironState.getWorld(), this.working).getY();
-			return ((y - playerPos.getY()) < 3) ? this.points : 0.0F;
+		public float score(final int playerY) {
+			final int y = survey.getHeight(this.offset.getX(), this.offset.getZ());
+			return ((y - playerY) < 3) ? this.points : 0.0F;
 		}
 
 		@Override
@@ -54,6 +54,7 @@ public class EffectManager {
 		this.effectHandlers.add(new EnvironStateHandler());
 		this.effectHandlers.add(new ExpressionStateHandler());
 
+		this.effectHandlers.add(new ParticleBudgetHandler());
 		this.effectHandlers.add(new AreaSurveyHandler());
 		this.effectHandlers.add(new FogEffectHandler());
 		this.effectHandlers.add(new ParticleSystemHandler());
@@ -39,6 +39,8 @@ import org.blockartistry.DynSurround.client.event.DiagnosticEvent;
 import org.blockartistry.DynSurround.client.event.ServerDataEvent;
 import org.blockartistry.DynSurround.client.handlers.scanners.BattleScanner;
 import org.blockartistry.DynSurround.client.weather.WeatherProperties;
+import org.blockartistry.DynSurround.network.Network;
+import org.blockartistry.DynSurround.network.PacketServerDataSubscribe;
 import org.blockartistry.DynSurround.registry.ArmorClass;
 import org.blockartistry.DynSurround.registry.BiomeInfo;
 import org.blockartistry.DynSurround.registry.BiomeRegistry;
@@ -82,6 +84,7 @@ public class EnvironStateHandler extends EffectHandlerBase {
 
 	// TPS status strings to display
 	private List<String> serverDataReport = ImmutableList.of();
+	private boolean serverDataSubscribed = false;
 
 	public static class EnvironState {
 
@@ -394,6 +397,17 @@ public class EnvironStateHandler extends EffectHandlerBase {
 	public void process(@Nonnull final World world, @Nonnull final EntityPlayer player) {
 		EnvironState.tick(world, player);
 
+		// The server only reports its statistics while the debug display is
+		// up so let it know when that changes
+		final boolean wantServerData = Minecraft.getMinecraft().gameSettings.showDebugInfo
+				&& DSurround.isInstalledOnServer();
+		if (wantServerData != this.serverDataSubscribed) {
+			this.serverDataSubscribed = wantServerData;
+			Network.sendToServer(new PacketServerDataSubscribe(wantServerData));
+			if (!wantServerData)
+				this.serverDataReport = null;
+		}
+
 		// Gather diagnostics if needed
 		if (Minecraft.getMinecraft().gameSettings.showDebugInfo && ModOptions.enableDebugLogging) {
 			DSurround.getProfiler().startSection("GatherDebug");
@@ -442,6 +456,7 @@ public class EnvironStateHandler extends EffectHandlerBase {
 	public void onConnect() {
 		this.diagnostics = null;
 		this.serverDataReport = null;
+		this.serverDataSubscribed = false;
 		EnvironState.reset();
 	}
 
@@ -449,6 +464,7 @@ public class EnvironStateHandler extends EffectHandlerBase {
 	public void onDisconnect() {
 		this.diagnostics = null;
 		this.serverDataReport = null;
+		this.serverDataSubscribed = false;
 		EnvironState.reset();
 	}
 
@@ -499,18 +515,22 @@ public class EnvironStateHandler extends EffectHandlerBase {
 		final int tps = (int) Math.min(1000.0D / event.meanTickTime, 20.0D);
 		data.add(String.format("Ticktime Overall:%s %5.3fms (%d TPS)", getTpsFormatPrefix(tps), event.meanTickTime,
 				tps));
+		data.add(String.format("p50/p95/p99: %5.3f/%5.3f/%5.3fms", event.tickPercentiles[0],
+				event.tickPercentiles[1], event.tickPercentiles[2]));
 		event.dimTps.forEachEntry(new TIntDoubleProcedure() {
 			@Override
 			public boolean execute(int a, double b) {
 				final String dimName = DimensionManager.getProviderType(a).getName();
 				final int tps = (int) Math.min(1000.0D / b, 20.0D);
-				data.add(String.format("%s (%d):%s %7.3fms (%d TPS)", dimName, a, getTpsFormatPrefix(tps), b, tps));
+				final float[] p = event.dimPercentiles.get(a);
+				data.add(String.format("%s (%d):%s %7.3fms (%d TPS) p99 %.3fms", dimName, a, getTpsFormatPrefix(tps),
+						b, tps, p != null ? p[2] : 0F));
 				return true;
 			}
 
 		});
 
-		Collections.sort(data.subList(4, data.size()));
+		Collections.sort(data.subList(5, data.size()));
 		this.serverDataReport = data;
 	}
 
@@ -28,6 +28,7 @@ import javax.annotation.Nonnull;
 
 import org.blockartistry.DynSurround.ModOptions;
 import org.blockartistry.DynSurround.api.events.FootstepEvent;
+import org.blockartistry.DynSurround.client.event.BlockUpdateEvent;
 import org.blockartistry.DynSurround.client.fx.ParticleCollections;
 import org.blockartistry.DynSurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.blockartistry.DynSurround.client.sound.SoundEffect;
@@ -73,6 +74,11 @@ public class FootstepsHandler extends EffectHandlerBase {
 
 	}
 
+	@SubscribeEvent
+	public void onBlockUpdate(@Nonnull final BlockUpdateEvent event) {
+		this.footsteps.invalidate(event.pos);
+	}
+
 	@SubscribeEvent
 	public void onDisplayFootstep(@Nonnull final FootstepEvent.Display event) {
 		if (ModOptions.enableFootprints) {
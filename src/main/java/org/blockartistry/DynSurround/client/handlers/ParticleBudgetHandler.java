@@ -0,0 +1,79 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.blockartistry.DynSurround.client.handlers;
+
+import javax.annotation.Nonnull;
+
+import org.blockartistry.DynSurround.client.event.DiagnosticEvent;
+import org.blockartistry.DynSurround.client.fx.ParticleBudget;
+import org.blockartistry.DynSurround.client.fx.ParticleCollections;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Drives the ParticleBudget: measures frame time and hands out the per tick
+ * particle allowances.
+ */
+@SideOnly(Side.CLIENT)
+public class ParticleBudgetHandler extends EffectHandlerBase {
+
+	public ParticleBudgetHandler() {
+		super("ParticleBudgetHandler");
+	}
+
+	@Override
+	public void process(@Nonnull final World world, @Nonnull final EntityPlayer player) {
+		ParticleBudget.update();
+	}
+
+	@SubscribeEvent
+	public void onRenderTick(@Nonnull final TickEvent.RenderTickEvent event) {
+		if (event.phase == TickEvent.Phase.START)
+			ParticleBudget.frame();
+	}
+
+	@Override
+	public void onConnect() {
+		ParticleBudget.reset();
+		ParticleCollections.clearPools();
+	}
+
+	@Override
+	public void onDisconnect() {
+		ParticleBudget.reset();
+		ParticleCollections.clearPools();
+	}
+
+	@SubscribeEvent
+	public void diagnostics(@Nonnull final DiagnosticEvent.Gather event) {
+		ParticleBudget.diagnostics(event.output);
+		ParticleCollections.diagnostics(event.output);
+	}
+
+}
@@ -25,6 +25,7 @@
 package org.blockartistry.DynSurround.client.handlers;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.blockartistry.DynSurround.ModOptions;
 import org.blockartistry.DynSurround.api.effects.BlockEffectType;
@@ -32,6 +33,9 @@ import org.blockartistry.DynSurround.api.events.BlockEffectEvent;
 import org.blockartistry.DynSurround.client.fx.particle.system.ParticleSystem;
 import org.blockartistry.DynSurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.blockartistry.lib.BlockPosHelper;
+import org.blockartistry.lib.collections.ObjectArray;
+
+import com.google.common.base.Predicate;
 
 import gnu.trove.iterator.TLongObjectIterator;
 import gnu.trove.map.hash.TLongObjectHashMap;
@@ -46,9 +50,67 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 @SideOnly(Side.CLIENT)
 public class ParticleSystemHandler extends EffectHandlerBase {
 
+	// Number of systems in the surrounding sections beyond which new
+	// systems start to get thinned.
+	private static final int DENSITY_THRESHOLD = 24;
+
 	public static ParticleSystemHandler INSTANCE;
 
-	private final TLongObjectHashMap<ParticleSystem> systems = new TLongObjectHashMap<ParticleSystem>();
+	/*
+	 * Particle systems bucketed by the chunk section they are in. Range checks
+	 * are made against the bucket bounds so whole sections can be updated or
+	 * expired without looking at each system.
+	 */
+	private static final class SystemBucket {
+		public final int minX;
+		public final int minY;
+		public final int minZ;
+		public final ObjectArray<ParticleSystem> systems = new ObjectArray<ParticleSystem>(8);
+
+		public SystemBucket(final int sX, final int sY, final int sZ) {
+			this.minX = sX << 4;
+			this.minY = sY << 4;
+			this.minZ = sZ << 4;
+		}
+
+		public boolean isOutside(@Nonnull final BlockPos min, @Nonnull final BlockPos max) {
+			return this.minX > max.getX() || this.minX + 15 < min.getX() || this.minY > max.getY()
+					|| this.minY + 15 < min.getY() || this.minZ > max.getZ() || this.minZ + 15 < min.getZ();
+		}
+
+		public boolean isInside(@Nonnull final BlockPos min, @Nonnull final BlockPos max) {
+			return this.minX >= min.getX() && this.minX + 15 <= max.getX() && this.minY >= min.getY()
+					&& this.minY + 15 <= max.getY() && this.minZ >= min.getZ() && this.minZ + 15 <= max.getZ();
+		}
+	}
+
+	private final TLongObjectHashMap<SystemBucket> buckets = new TLongObjectHashMap<SystemBucket>();
+	private int systemCount = 0;
+
+	// Range of the current update pass
+	private BlockPos min;
+	private BlockPos max;
+	private boolean checkRange;
+
+	private final Predicate<ParticleSystem> UPDATE_REMOVE = new Predicate<ParticleSystem>() {
+		@Override
+		public boolean apply(@Nonnull final ParticleSystem system) {
+			// If it is out of range expire, else update
+			if (ParticleSystemHandler.this.checkRange && !BlockPosHelper.contains(system.getPos(),
+					ParticleSystemHandler.this.min, ParticleSystemHandler.this.max)) {
+				system.setExpired();
+			} else {
+				system.onUpdate();
+			}
+
+			// If it's dead remove from the list
+			if (!system.isAlive()) {
+				ParticleSystemHandler.this.systemCount--;
+				return true;
+			}
+			return false;
+		}
+	};
 
 	public ParticleSystemHandler() {
 		super("ParticleSystemHandler");
@@ -58,38 +120,50 @@ public class ParticleSystemHandler extends EffectHandlerBase {
 	@Override
 	public void process(@Nonnull final World world, @Nonnull final EntityPlayer player) {
 
-		if (this.systems.size() == 0)
+		if (this.systemCount == 0)
 			return;
 
 		final double range = ModOptions.specialEffectRange;
-		final BlockPos min = EnvironState.getPlayerPosition().add(-range, -range, -range);
-		final BlockPos max = EnvironState.getPlayerPosition().add(range, range, range);
+		this.min = EnvironState.getPlayerPosition().add(-range, -range, -range);
+		this.max = EnvironState.getPlayerPosition().add(range, range, range);
 
-		final TLongObjectIterator<ParticleSystem> itr = this.systems.iterator();
+		final TLongObjectIterator<SystemBucket> itr = this.buckets.iterator();
 		while (itr.hasNext()) {
 			itr.advance();
+			final SystemBucket bucket = itr.value();
 
-			// If it is out of range expire, else update
-			if (!BlockPosHelper.contains(itr.value().getPos(), min, max)) {
-				itr.value().setExpired();
-			} else {
-				itr.value().onUpdate();
+			if (bucket.isOutside(this.min, this.max)) {
+				// Whole section went out of range
+				for (int i = 0; i < bucket.systems.size(); i++)
+					bucket.systems.get(i).setExpired();
+				this.systemCount -= bucket.systems.size();
+				itr.remove();
+				continue;
 			}
 
-			// If it's dead remove from the list
-			if (!itr.value().isAlive())
+			// Systems in sections that straddle the range boundary need to
+			// be checked individually.
+			this.checkRange = !bucket.isInside(this.min, this.max);
+			bucket.systems.removeIf(this.UPDATE_REMOVE);
+
+			if (bucket.systems.isEmpty())
 				itr.remove();
 		}
 	}
 
 	@Override
 	public void onConnect() {
-		this.systems.clear();
+		clear();
 	}
 
 	@Override
 	public void onDisconnect() {
-		this.systems.clear();
+		clear();
+	}
+
+	private void clear() {
+		this.buckets.clear();
+		this.systemCount = 0;
 	}
 
 	private static boolean interestingEvent(final BlockEffectEvent event) {
@@ -98,18 +172,70 @@ public class ParticleSystemHandler extends EffectHandlerBase {
 
 	@SubscribeEvent(priority = EventPriority.HIGHEST)
 	public void onBlockEffectEvent(@Nonnull final BlockEffectEvent event) {
-		if (interestingEvent(event) && !okToSpawn(event.location))
+		if (!interestingEvent(event))
+			return;
+
+		if (!okToSpawn(event.location)) {
+			event.setCanceled(true);
+			return;
+		}
+
+		// Thin out new systems in busy areas, like a nether lava sea. The
+		// more crowded the area the less likely a new system will spawn.
+		final int density = getDensity(event.location);
+		if (density > DENSITY_THRESHOLD && this.RANDOM.nextInt(density) >= DENSITY_THRESHOLD)
 			event.setCanceled(true);
 	}
 
+	@Nullable
+	private SystemBucket getBucket(final int sX, final int sY, final int sZ) {
+		return this.buckets.get(BlockPosHelper.sectionKey(sX, sY, sZ));
+	}
+
 	// Determines if it is OK to spawn a particle system at the specified
 	// location. Generally only a single system can occupy a block.
 	private boolean okToSpawn(@Nonnull final BlockPos pos) {
-		return !this.systems.containsKey(pos.toLong());
+		final SystemBucket bucket = getBucket(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
+		if (bucket != null)
+			for (int i = 0; i < bucket.systems.size(); i++)
+				if (bucket.systems.get(i).getPos().equals(pos))
+					return false;
+		return true;
+	}
+
+	/**
+	 * Number of particle systems in the chunk section containing the position
+	 * as well as the sections that surround it.
+	 */
+	public int getDensity(@Nonnull final BlockPos pos) {
+		final int sX = pos.getX() >> 4;
+		final int sY = pos.getY() >> 4;
+		final int sZ = pos.getZ() >> 4;
+
+		int count = 0;
+		for (int x = sX - 1; x <= sX + 1; x++)
+			for (int y = sY - 1; y <= sY + 1; y++)
+				for (int z = sZ - 1; z <= sZ + 1; z++) {
+					final SystemBucket bucket = getBucket(x, y, z);
+					if (bucket != null)
+						count += bucket.systems.size();
+				}
+		return count;
 	}
 
 	public void addSystem(@Nonnull final ParticleSystem system) {
-		this.systems.put(system.getPos().toLong(), system);
+		final BlockPos pos = system.getPos();
+		final int sX = pos.getX() >> 4;
+		final int sY = pos.getY() >> 4;
+		final int sZ = pos.getZ() >> 4;
+		final long key = BlockPosHelper.sectionKey(sX, sY, sZ);
+		SystemBucket bucket = this.buckets.get(key);
+		if (bucket == null) {
+			bucket = new SystemBucket(sX, sY, sZ);
+			this.buckets.put(key, bucket);
+		}
+		bucket.systems.add(system);
+		this.systemCount++;
 	}
 
 }
@@ -48,8 +48,8 @@ import org.blockartistry.DynSurround.client.sound.Sounds;
 import org.blockartistry.DynSurround.network.Network;
 import org.blockartistry.DynSurround.network.PacketPlaySound;
 import org.blockartistry.lib.collections.ObjectArray;
+import org.blockartistry.lib.collections.TimerWheel;
 
-import com.google.common.base.Predicate;
 import gnu.trove.iterator.TObjectFloatIterator;
 import gnu.trove.map.hash.TObjectFloatHashMap;
 import net.minecraft.client.audio.ISound;
@@ -68,17 +68,15 @@ public class SoundEffectHandler extends EffectHandlerBase {
 	private static final int AGE_THRESHOLD_TICKS = 10;
 	public static final SoundEffectHandler INSTANCE = new SoundEffectHandler();
 
-	private static final Predicate<PendingSound> PENDING_SOUNDS = new Predicate<PendingSound>() {
+	private static final TimerWheel.Handler<PendingSound> PENDING_SOUNDS = new TimerWheel.Handler<PendingSound>() {
 		@Override
-		public boolean apply(final PendingSound input) {
+		public void onExpire(@Nonnull final PendingSound input) {
 			if (input.getTickAge() >= AGE_THRESHOLD_TICKS) {
 				input.getSound().setState(SoundState.ERROR);
-				return true;
+			} else if (INSTANCE.playSound(input.getSound()) == null) {
+				// Try again next tick
+				INSTANCE.pending.schedule(input, EnvironState.getTickCounter() + 1);
 			}
-			if (input.getTickAge() >= 0) {
-				return INSTANCE.playSound(input.getSound()) != null;
-			}
-			return false;
 		}
 	};
 
@@ -99,13 +97,17 @@ public class SoundEffectHandler extends EffectHandlerBase {
 			return EnvironState.getTickCounter() - this.timeMark;
 		}
 
+		public int getTimeMark() {
+			return this.timeMark;
+		}
+
 		public BasicSound<?> getSound() {
 			return this.sound;
 		}
 	}
 
 	private final Map<SoundEffect, Emitter> emitters = new HashMap<SoundEffect, Emitter>();
-	private final ObjectArray<PendingSound> pending = new ObjectArray<PendingSound>();
+	private final TimerWheel<PendingSound> pending = new TimerWheel<PendingSound>(64, 1L);
 	private final ObjectArray<BasicSound<?>> sendToServer = new ObjectArray<BasicSound<?>>();
 
 	private SoundEffectHandler() {
@@ -118,8 +120,7 @@ public class SoundEffectHandler extends EffectHandlerBase {
 		for (final Emitter emitter : this.emitters.values())
 			emitter.update();
 
-		if (this.pending.size() > 0)
-			this.pending.removeIf(PENDING_SOUNDS);
+		this.pending.advance(EnvironState.getTickCounter(), PENDING_SOUNDS);
 
 		// Flush out cached sounds
 		if (this.sendToServer.size() > 0) {
@@ -235,7 +236,8 @@ public class SoundEffectHandler extends EffectHandlerBase {
 			return playSound(s);
 
 		s.setState(SoundState.DELAYED);
-		this.pending.add(new PendingSound(s, tickDelay));
+		final PendingSound pendingSound = new PendingSound(s, tickDelay);
+		this.pending.schedule(pendingSound, pendingSound.getTimeMark());
 		return null;
 	}
 
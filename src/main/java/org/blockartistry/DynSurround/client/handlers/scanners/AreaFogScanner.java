@@ -27,10 +27,10 @@ package org.blockartistry.DynSurround.client.handlers.scanners;
 import javax.annotation.Nonnull;
 
 import org.blockartistry.DynSurround.ModOptions;
+import org.blockartistry.DynSurround.client.handlers.AreaSurveyHandler;
 import org.blockartistry.DynSurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.blockartistry.DynSurround.client.weather.WeatherProperties;
 import org.blockartistry.DynSurround.registry.BiomeInfo;
-import org.blockartistry.DynSurround.registry.BiomeRegistry;
 import org.blockartistry.DynSurround.registry.DimensionRegistry;
 import org.blockartistry.DynSurround.registry.RegistryManager;
 import org.blockartistry.DynSurround.registry.RegistryManager.RegistryType;
@@ -38,6 +38,7 @@ import org.blockartistry.lib.Color;
 import org.blockartistry.lib.MathStuff;
 
 import com.google.common.base.MoreObjects;
+import gnu.trove.iterator.TObjectIntIterator;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.MobEffects;
@@ -53,7 +54,7 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 public class AreaFogScanner implements ITickable {
 
 	private static final int HAZE_THRESHOLD = 15;
-	private static final int RANGE = 10;
+	private static final int RANGE = AreaSurveyHandler.AREA_SURVEY_RANGE;
 	private static final double AREA = (RANGE * 2 + 1) * (RANGE * 2 + 1);
 
 	private static final Color OVERWORLD_FOG_COLOR = new Color(0.7529412F, 0.84705883F, 1.0F);
@@ -61,9 +62,15 @@ public class AreaFogScanner implements ITickable {
 			0.029999999329447746D);
 	private static final Color END_FOG_COLOR = new Color(0.627451F * 0.15F, 0.5019608F * 0.15F, 0.627451F * 0.15F);
 
-	private final BiomeRegistry biomes = RegistryManager.get(RegistryType.BIOME);
 	private final DimensionRegistry dimensions = RegistryManager.get(RegistryType.DIMENSION);
-	private final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+	// Biome counts of the area come from a sliding window over the shared
+	// area survey so moving a block only examines the row/column that came
+	// into range.
+	private final BiomeWindow window = new BiomeWindow(AreaSurveyHandler.getSurvey(), RANGE);
+
+	// Returned from getFogColor() so that nothing is allocated per frame
+	private final Color fogColor = new Color(0F, 0F, 0F);
 
 	private BlockPos lastPos = BlockPos.ORIGIN;
 	private int lastDim = 0;
@@ -72,7 +79,9 @@ public class AreaFogScanner implements ITickable {
 
 	private float biomeWeight;
 	private float weightDefault;
-	private Color blendedColor;
+	private float blendedRed;
+	private float blendedGreen;
+	private float blendedBlue;
 	private float fogDensity;
 
 	private float planeDistanceScale;
@@ -117,17 +126,30 @@ public class AreaFogScanner implements ITickable {
 	@Nonnull
 	private Color worldFogColor(@Nonnull final World world, final float partialTicks) {
 		if (world == null)
-			return OVERWORLD_FOG_COLOR;
+			return setFogColor(OVERWORLD_FOG_COLOR.red, OVERWORLD_FOG_COLOR.green, OVERWORLD_FOG_COLOR.blue);
 
 		final Vec3d colors = world.getFogColor(partialTicks);
-		return colors == null ? baseWorldFogColor(world) : new Color(colors);
+		if (colors == null) {
+			final Color base = baseWorldFogColor(world);
+			return setFogColor(base.red, base.green, base.blue);
+		}
+		return setFogColor((float) colors.x, (float) colors.y, (float) colors.z);
+	}
+
+	@Nonnull
+	private Color setFogColor(final float red, final float green, final float blue) {
+		this.fogColor.red = red;
+		this.fogColor.green = green;
+		this.fogColor.blue = blue;
+		return this.fogColor;
 	}
 
 	@Override
 	public void update() {
 
+		final boolean areaChanged = this.window.update();
 		final BlockPos playerPos = EnvironState.getPlayerPosition();
-		if (this.lastPos.equals(playerPos) && this.lastDim == EnvironState.getDimensionId()
+		if (!areaChanged && this.lastPos.equals(playerPos) && this.lastDim == EnvironState.getDimensionId()
 				&& this.lastIntensity == WeatherProperties.getIntensityLevel()
 				&& this.lastBiome == EnvironState.getPlayerBiome())
 			return;
@@ -140,9 +162,11 @@ public class AreaFogScanner implements ITickable {
 		final World world = EnvironState.getWorld();
 		final float rainStrength = world.getRainStrength(1.0F);
 		final Color worldFogColor = baseWorldFogColor(world);
-		final Color scaledDefaultFogColor = Color.scale(worldFogColor, 1F - rainStrength);
+		final float defaultScale = 1F - rainStrength;
 
-		this.blendedColor = new Color(0, 0, 0);
+		this.blendedRed = 0;
+		this.blendedGreen = 0;
+		this.blendedBlue = 0;
 		this.fogDensity = 0;
 		this.biomeWeight = 0;
 
@@ -152,27 +176,42 @@ public class AreaFogScanner implements ITickable {
 					: calcHazeGradient(world, EnvironState.getPlayer());
 		}
 
-		for (int dX = -RANGE; dX <= RANGE; dX++)
-			for (int dZ = -RANGE; dZ <= RANGE; dZ++) {
-				this.pos.setPos(playerPos.getX() + dX, playerPos.getY(), playerPos.getZ() + dZ);
-				final BiomeInfo biome = this.biomes.get(world.getBiome(pos));
-				final Color theColor;
-				float fog = 0F;
-				if (ModOptions.enableBiomeFog && biome.getHasFog()) {
-					theColor = biome.getFogColor();
-					fog = (biome.getFogDensity() * 0.4F + 0.5F) * ModOptions.biomeFogFactor;
-				} else if (ModOptions.allowDesertFog && biome.getHasDust() && this.lastIntensity > 0) {
-					theColor = Color.scale(biome.getDustColor(), rainStrength).add(scaledDefaultFogColor);
-					fog = (float) (this.lastIntensity * 0.5F + 0.4F) * ModOptions.desertFogFactor * rainStrength;
-				} else {
-					theColor = worldFogColor;
-				}
-
-				this.fogDensity += 1 - Math.max(heightFog, fog);
-				this.biomeWeight++;
-				this.blendedColor.add(theColor);
+		// Every column of the same biome contributes the same values so the
+		// blend is accumulated once per distinct biome, scaled by its count.
+		final TObjectIntIterator<BiomeInfo> itr = this.window.getWeights().iterator();
+		while (itr.hasNext()) {
+			itr.advance();
+			final BiomeInfo biome = itr.key();
+			final int count = itr.value();
+			final float red;
+			final float green;
+			final float blue;
+			float fog = 0F;
+			if (ModOptions.enableBiomeFog && biome.getHasFog()) {
+				final Color color = biome.getFogColor();
+				red = color.red;
+				green = color.green;
+				blue = color.blue;
+				fog = (biome.getFogDensity() * 0.4F + 0.5F) * ModOptions.biomeFogFactor;
+			} else if (ModOptions.allowDesertFog && biome.getHasDust() && this.lastIntensity > 0) {
+				final Color color = biome.getDustColor();
+				red = color.red * rainStrength + worldFogColor.red * defaultScale;
+				green = color.green * rainStrength + worldFogColor.green * defaultScale;
+				blue = color.blue * rainStrength + worldFogColor.blue * defaultScale;
+				fog = (float) (this.lastIntensity * 0.5F + 0.4F) * ModOptions.desertFogFactor * rainStrength;
+			} else {
+				red = worldFogColor.red;
+				green = worldFogColor.green;
+				blue = worldFogColor.blue;
 			}
 
+			this.fogDensity += count * (1 - Math.max(heightFog, fog));
+			this.biomeWeight += count;
+			this.blendedRed += count * red;
+			this.blendedGreen += count * green;
+			this.blendedBlue += count * blue;
+		}
+
 		this.weightDefault = (float) (AREA - this.biomeWeight);
 
 		final float fpDistanceBiomeFogAvg = (this.biomeWeight == 0) ? 0 : this.fogDensity / this.biomeWeight;
@@ -196,9 +235,14 @@ public class AreaFogScanner implements ITickable {
 
 		final Color defaultFogColor = worldFogColor(world, partialTick);
 
-		if (this.blendedColor == null || this.biomeWeight == 0 || world.provider == null)
+		if (this.biomeWeight == 0 || world.provider == null)
 			return defaultFogColor;
 
+		// Grab these before the shared color instance gets overwritten
+		final float defaultRed = defaultFogColor.red;
+		final float defaultGreen = defaultFogColor.green;
+		final float defaultBlue = defaultFogColor.blue;
+
 		final int dimId = world.provider.getDimension();
 
 		// Default to NETHER/End scale factors
@@ -241,9 +285,9 @@ public class AreaFogScanner implements ITickable {
 		// Normalize the blended color components based on the biome weight.
 		// The components contain a summation of all the fog components
 		// in the area around the player.
-		float r = (float) (this.blendedColor.red * scaleRed / this.biomeWeight);
-		float g = (float) (this.blendedColor.green * scaleGreen / this.biomeWeight);
-		float b = (float) (this.blendedColor.blue * scaleBlue / this.biomeWeight);
+		float r = (float) (this.blendedRed * scaleRed / this.biomeWeight);
+		float g = (float) (this.blendedGreen * scaleGreen / this.biomeWeight);
+		float b = (float) (this.blendedBlue * scaleBlue / this.biomeWeight);
 
 		// Darken the fog a bit based on the player's Y
 		final EntityPlayer player = EnvironState.getPlayer();
@@ -294,12 +338,12 @@ public class AreaFogScanner implements ITickable {
 
 		// Mix the blended color with the existing fog color based on the
 		// areas they occupy.
-		r = (float) ((r * this.biomeWeight + defaultFogColor.red * this.weightDefault) / AREA);
-		g = (float) ((g * this.biomeWeight + defaultFogColor.green * this.weightDefault) / AREA);
-		b = (float) ((b * this.biomeWeight + defaultFogColor.blue * this.weightDefault) / AREA);
+		r = (float) ((r * this.biomeWeight + defaultRed * this.weightDefault) / AREA);
+		g = (float) ((g * this.biomeWeight + defaultGreen * this.weightDefault) / AREA);
+		b = (float) ((b * this.biomeWeight + defaultBlue * this.weightDefault) / AREA);
 
 		// Cook it!
-		return new Color(r, g, b);
+		return setFogColor(r, g, b);
 	}
 
 	@Override
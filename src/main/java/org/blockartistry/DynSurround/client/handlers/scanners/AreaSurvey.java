@@ -0,0 +1,218 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.DynSurround.client.handlers.scanners;
+
+import javax.annotation.Nonnull;
+
+import org.blockartistry.DynSurround.registry.BiomeInfo;
+import org.blockartistry.DynSurround.registry.BiomeRegistry;
+import org.blockartistry.DynSurround.registry.RegistryManager;
+import org.blockartistry.DynSurround.registry.RegistryManager.RegistryType;
+import org.blockartistry.lib.WorldUtils;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Rolling 2D survey of the columns around the player. The grid is stored as a
+ * torus indexed by the absolute X/Z of each column, so when the player crosses
+ * a block boundary only the cells that fall into the new row/column have to be
+ * sampled. Everything else is reused from prior ticks.
+ *
+ * Biome information is sampled eagerly as cells come into range. Cells that
+ * were sampled while their chunk was not loaded are sampled again on later
+ * updates until the chunk arrives. The height of the top solid or liquid block
+ * is sampled lazily because only the inner portion of the grid is interested
+ * in it, and is dropped when a block in the column changes.
+ */
+@SideOnly(Side.CLIENT)
+public final class AreaSurvey {
+
+	private static final int UNKNOWN = Integer.MIN_VALUE;
+
+	private final int range;
+	private final int size;
+	private final int[] cellX;
+	private final int[] cellZ;
+	private final BiomeInfo[] biomes;
+	private final boolean[] loaded;
+	private final int[] heights;
+	private final BiomeRegistry registry;
+	private final BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
+
+	private World world;
+	private int centerX;
+	private int centerZ;
+	private boolean valid;
+	private int unloaded;
+	private int version;
+
+	public AreaSurvey(final int range) {
+		this.range = range;
+		this.size = range * 2 + 1;
+
+		final int area = this.size * this.size;
+		this.cellX = new int[area];
+		this.cellZ = new int[area];
+		this.biomes = new BiomeInfo[area];
+		this.loaded = new boolean[area];
+		this.heights = new int[area];
+		this.registry = RegistryManager.<BiomeRegistry>get(RegistryType.BIOME);
+	}
+
+	public int getRange() {
+		return this.range;
+	}
+
+	public int getCenterX() {
+		return this.centerX;
+	}
+
+	public int getCenterZ() {
+		return this.centerZ;
+	}
+
+	/**
+	 * Incremented whenever cells are sampled for a reason other than coming
+	 * into range, such as the world changing or a chunk arriving. Consumers
+	 * that track the grid incrementally have to rescan their area when this
+	 * changes.
+	 */
+	public int getVersion() {
+		return this.version;
+	}
+
+	private int index(final int x, final int z) {
+		return Math.floorMod(x, this.size) * this.size + Math.floorMod(z, this.size);
+	}
+
+	private boolean inRange(final int x, final int z) {
+		return Math.abs(x - this.centerX) <= this.range && Math.abs(z - this.centerZ) <= this.range;
+	}
+
+	/**
+	 * Recenters the survey on the specified position. Cells that were already
+	 * part of the grid are retained; only those that have just come into range
+	 * are sampled. Returns true if any cell was sampled.
+	 */
+	public boolean update(@Nonnull final World world, @Nonnull final BlockPos center) {
+		if (this.world != world) {
+			this.world = world;
+			this.valid = false;
+		}
+
+		final int x = center.getX();
+		final int z = center.getZ();
+		if (this.valid && this.unloaded == 0 && x == this.centerX && z == this.centerZ)
+			return false;
+
+		if (!this.valid || this.unloaded > 0)
+			this.version++;
+
+		this.centerX = x;
+		this.centerZ = z;
+		this.unloaded = 0;
+
+		boolean sampled = false;
+		for (int dX = -this.range; dX <= this.range; dX++)
+			for (int dZ = -this.range; dZ <= this.range; dZ++) {
+				final int cX = x + dX;
+				final int cZ = z + dZ;
+				final int idx = index(cX, cZ);
+				if (!this.valid || !this.loaded[idx] || this.cellX[idx] != cX || this.cellZ[idx] != cZ) {
+					sample(idx, cX, cZ);
+					sampled = true;
+				}
+			}
+
+		this.valid = true;
+		return sampled;
+	}
+
+	private void sample(final int idx, final int x, final int z) {
+		this.cellX[idx] = x;
+		this.cellZ[idx] = z;
+		this.mutable.setPos(x, 0, z);
+		this.biomes[idx] = this.registry.get(this.world.getBiome(this.mutable));
+		this.heights[idx] = UNKNOWN;
+		if (!(this.loaded[idx] = this.world.isBlockLoaded(this.mutable)))
+			this.unloaded++;
+	}
+
+	/**
+	 * Biome of the column at the specified offset from the center of the grid.
+	 */
+	@Nonnull
+	public BiomeInfo getBiome(final int dX, final int dZ) {
+		return this.biomes[index(this.centerX + dX, this.centerZ + dZ)];
+	}
+
+	/**
+	 * Biome of the column at the specified world X/Z. The column has to be
+	 * within range of the current center of the grid.
+	 */
+	@Nonnull
+	public BiomeInfo getBiomeAt(final int x, final int z) {
+		return this.biomes[index(x, z)];
+	}
+
+	/**
+	 * Y of the top solid or liquid block of the column at the specified offset
+	 * from the center of the grid. Columns in chunks that are not loaded are
+	 * not retained so they get picked up once the chunk arrives.
+	 */
+	public int getHeight(final int dX, final int dZ) {
+		final int x = this.centerX + dX;
+		final int z = this.centerZ + dZ;
+		final int idx = index(x, z);
+		int y = this.heights[idx];
+		if (y == UNKNOWN) {
+			this.mutable.setPos(x, 0, z);
+			y = WorldUtils.getTopSolidOrLiquidBlock(this.world, this.mutable).getY();
+			if (this.world.isBlockLoaded(this.mutable))
+				this.heights[idx] = y;
+		}
+		return y;
+	}
+
+	/**
+	 * Drops the cached height of the column containing the position.
+	 */
+	public void invalidate(@Nonnull final BlockPos pos) {
+		if (this.valid && inRange(pos.getX(), pos.getZ()))
+			this.heights[index(pos.getX(), pos.getZ())] = UNKNOWN;
+	}
+
+	public void clear() {
+		this.world = null;
+		this.valid = false;
+		this.unloaded = 0;
+		for (int i = 0; i < this.biomes.length; i++)
+			this.biomes[i] = null;
+	}
+
+}
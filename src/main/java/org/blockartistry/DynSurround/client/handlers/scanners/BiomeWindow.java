@@ -0,0 +1,161 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.DynSurround.client.handlers.scanners;
+
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+
+import org.blockartistry.DynSurround.registry.BiomeInfo;
+
+import gnu.trove.iterator.TObjectIntIterator;
+import gnu.trove.map.custom_hash.TObjectIntCustomHashMap;
+import gnu.trove.strategy.IdentityHashingStrategy;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Sliding count of the biomes in a square window centered on an AreaSurvey.
+ * Each slot of the window remembers the biome it contributed. The slots are a
+ * torus keyed by the absolute X/Z of the column so the slot of a departing
+ * column is reused by the arriving one. When the survey moves only the
+ * arriving row/column is examined; the whole window is only rescanned when the
+ * survey reports that cells were sampled for some other reason.
+ */
+@SideOnly(Side.CLIENT)
+public final class BiomeWindow {
+
+	private final AreaSurvey survey;
+	private final int range;
+	private final int size;
+	private final BiomeInfo[] counted;
+	private final TObjectIntCustomHashMap<BiomeInfo> weights = new TObjectIntCustomHashMap<BiomeInfo>(
+			IdentityHashingStrategy.INSTANCE);
+	private final TObjectIntCustomHashMap<BiomeInfo> deltas = new TObjectIntCustomHashMap<BiomeInfo>(
+			IdentityHashingStrategy.INSTANCE);
+
+	private boolean valid;
+	private int centerX;
+	private int centerZ;
+	private int version;
+
+	public BiomeWindow(@Nonnull final AreaSurvey survey, final int range) {
+		assert range <= survey.getRange();
+		this.survey = survey;
+		this.range = range;
+		this.size = range * 2 + 1;
+		this.counted = new BiomeInfo[this.size * this.size];
+	}
+
+	public int getArea() {
+		return this.size * this.size;
+	}
+
+	/**
+	 * Weight of each biome in the window. Biomes that drop out of the window
+	 * are removed.
+	 */
+	@Nonnull
+	public TObjectIntCustomHashMap<BiomeInfo> getWeights() {
+		return this.weights;
+	}
+
+	public void clear() {
+		this.valid = false;
+		this.weights.clear();
+		Arrays.fill(this.counted, null);
+	}
+
+	/**
+	 * Brings the window in line with the survey. Returns true if the weights
+	 * changed. Departing and arriving columns of the same biome cancel each
+	 * other out, so moving within an area of a single biome is not a change.
+	 */
+	public boolean update() {
+		final int x = this.survey.getCenterX();
+		final int z = this.survey.getCenterZ();
+		final int version = this.survey.getVersion();
+
+		if (this.valid && this.version == version) {
+			if (x == this.centerX && z == this.centerZ)
+				return false;
+		} else {
+			this.valid = false;
+		}
+
+		this.deltas.clear();
+
+		if (this.valid) {
+			// Only the columns that came into range
+			for (int cX = x - this.range; cX <= x + this.range; cX++) {
+				final boolean overlapX = Math.abs(cX - this.centerX) <= this.range;
+				for (int cZ = z - this.range; cZ <= z + this.range; cZ++) {
+					if (overlapX && Math.abs(cZ - this.centerZ) <= this.range) {
+						// Skip over the part that was already in range
+						cZ = this.centerZ + this.range;
+						continue;
+					}
+					count(cX, cZ);
+				}
+			}
+		} else {
+			for (int cX = x - this.range; cX <= x + this.range; cX++)
+				for (int cZ = z - this.range; cZ <= z + this.range; cZ++)
+					count(cX, cZ);
+		}
+
+		this.valid = true;
+		this.version = version;
+		this.centerX = x;
+		this.centerZ = z;
+
+		boolean changed = false;
+		final TObjectIntIterator<BiomeInfo> itr = this.deltas.iterator();
+		while (itr.hasNext()) {
+			itr.advance();
+			final int delta = itr.value();
+			if (delta != 0) {
+				changed = true;
+				if (this.weights.adjustOrPutValue(itr.key(), delta, delta) <= 0)
+					this.weights.remove(itr.key());
+			}
+		}
+
+		return changed;
+	}
+
+	private void count(final int x, final int z) {
+		final int idx = Math.floorMod(x, this.size) * this.size + Math.floorMod(z, this.size);
+		final BiomeInfo biome = this.survey.getBiomeAt(x, z);
+		final BiomeInfo old = this.counted[idx];
+		if (old != biome) {
+			if (old != null)
+				this.deltas.adjustOrPutValue(old, -1, -1);
+			this.deltas.adjustOrPutValue(biome, 1, 1);
+			this.counted[idx] = biome;
+		}
+	}
+
+}
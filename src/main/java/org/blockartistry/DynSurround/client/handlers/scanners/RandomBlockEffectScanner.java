@@ -29,6 +29,7 @@ import java.util.Random;
 import javax.annotation.Nonnull;
 
 import org.blockartistry.DynSurround.DSurround;
+import org.blockartistry.DynSurround.ModOptions;
 import org.blockartistry.DynSurround.client.fx.BlockEffect;
 import org.blockartistry.DynSurround.client.sound.SoundEffect;
 import org.blockartistry.DynSurround.registry.BlockProfile;
@@ -38,6 +39,9 @@ import org.blockartistry.DynSurround.registry.RegistryManager.RegistryType;
 import org.blockartistry.lib.scanner.RandomScanner;
 
 import net.minecraft.block.state.IBlockState;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.culling.Frustum;
+import net.minecraft.client.renderer.entity.RenderManager;
 import net.minecraft.util.math.BlockPos;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
@@ -53,10 +57,18 @@ public class RandomBlockEffectScanner extends RandomScanner {
 	// config files it tuned to this existing behavior.
 	private static final float RATIO = 1000.0F / (16.0F * 16.0F * 16.0F);
 
+	// Chance, as 1 in N, that an effect outside of the view frustum will be
+	// allowed to trigger.
+	private static final int OUT_OF_VIEW_CHANCE = 4;
+
 	protected final BlockRegistry blocks = RegistryManager.get(RegistryType.BLOCK);
 	protected BlockProfile profile = null;
 	protected IBlockState lastState = null;
 
+	protected final Frustum frustum = new Frustum();
+	protected boolean filterEffects;
+	protected int skipped;
+
 	public RandomBlockEffectScanner(final int range) {
 		super(ClientPlayerLocus.INSTANCE, "RandomBlockEffectScanner", range, (int) (range * range * range * RATIO));
 		this.setLogger(DSurround.log());
@@ -74,15 +86,88 @@ public class RandomBlockEffectScanner extends RandomScanner {
 	}
 
 	@Override
-	public void blockScan(@Nonnull final IBlockState state, @Nonnull final BlockPos pos, @Nonnull final Random rand) {
+	public void preScan() {
+		super.preScan();
+
+		this.filterEffects = ModOptions.enableEffectViewFilter;
+		this.skipped = 0;
+		if (this.filterEffects) {
+			final RenderManager manager = Minecraft.getMinecraft().getRenderManager();
+			this.frustum.setPosition(manager.viewerPosX, manager.viewerPosY, manager.viewerPosZ);
+		}
+	}
+
+	@Override
+	public void postScan() {
+		// Spend the samples that were skipped because they could not be
+		// seen on additional positions. Only the visible ones will take.
+		final int extra = Math.min(this.skipped, this.blocksPerTick / 2);
+		for (int count = 0; count < extra; count++) {
+			final BlockPos pos = nextPos(this.workingPos, this.random);
+			final IBlockState state = this.blockProvider.getBlockState(pos);
+			if (interestingBlock(state) && isVisible(pos))
+				doEffects(state, pos, this.random);
+		}
+
+		super.postScan();
+	}
+
+	protected boolean isEnclosed(@Nonnull final BlockPos pos) {
+		final int x = pos.getX();
+		final int y = pos.getY();
+		final int z = pos.getZ();
+		return this.blockProvider.getBlockState(x, y + 1, z).isOpaqueCube()
+				&& this.blockProvider.getBlockState(x, y - 1, z).isOpaqueCube()
+				&& this.blockProvider.getBlockState(x + 1, y, z).isOpaqueCube()
+				&& this.blockProvider.getBlockState(x - 1, y, z).isOpaqueCube()
+				&& this.blockProvider.getBlockState(x, y, z + 1).isOpaqueCube()
+				&& this.blockProvider.getBlockState(x, y, z - 1).isOpaqueCube();
+	}
 
+	protected boolean inFrustum(@Nonnull final BlockPos pos) {
+		// Expanded a bit since effects tend to spill into neighboring blocks
+		return this.frustum.isBoxInFrustum(pos.getX() - 1, pos.getY() - 1, pos.getZ() - 1, pos.getX() + 2,
+				pos.getY() + 2, pos.getZ() + 2);
+	}
+
+	protected boolean isVisible(@Nonnull final BlockPos pos) {
+		return !isEnclosed(pos) && inFrustum(pos);
+	}
+
+	/**
+	 * Determines if the effects for the block should be evaluated. Blocks that
+	 * are buried are skipped, and blocks outside the view only occasionally
+	 * get a chance.
+	 */
+	protected boolean shouldDoEffects(@Nonnull final BlockPos pos, @Nonnull final Random rand) {
+		if (!this.filterEffects)
+			return true;
+		if (isEnclosed(pos))
+			return false;
+		return inFrustum(pos) || rand.nextInt(OUT_OF_VIEW_CHANCE) == 0;
+	}
+
+	protected void doEffects(@Nonnull final IBlockState state, @Nonnull final BlockPos pos,
+			@Nonnull final Random rand) {
 		final BlockEffect[] effects = this.profile.getEffects();
 		for (int i = 0; i < effects.length; i++) {
 			final BlockEffect be = effects[i];
 			if (be.canTrigger(this.blockProvider, state, pos, rand))
 				be.doEffect(this.blockProvider, state, pos, rand);
 		}
+	}
+
+	@Override
+	public void blockScan(@Nonnull final IBlockState state, @Nonnull final BlockPos pos, @Nonnull final Random rand) {
+
+		if (this.profile.getEffects().length > 0) {
+			if (shouldDoEffects(pos, rand))
+				doEffects(state, pos, rand);
+			else
+				this.skipped++;
+		}
 
+		// Sounds are not subject to the view filter
 		final SoundEffect sound = this.profile.getSoundToPlay(rand);
 		if (sound != null)
 			sound.doEffect(this.blockProvider, state, pos, rand);
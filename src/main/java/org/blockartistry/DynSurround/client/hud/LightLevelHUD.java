@@ -28,13 +28,18 @@ import javax.annotation.Nonnull;
 
 import org.blockartistry.DynSurround.DSurround;
 import org.blockartistry.DynSurround.ModOptions;
+import org.blockartistry.DynSurround.client.event.BlockUpdateEvent;
+import org.blockartistry.DynSurround.client.event.LightUpdateEvent;
 import org.blockartistry.DynSurround.client.handlers.EnvironStateHandler.EnvironState;
+import org.blockartistry.lib.BlockPosHelper;
 import org.blockartistry.lib.BlockStateProvider;
 import org.blockartistry.lib.Color;
 import org.blockartistry.lib.MathStuff;
 import org.blockartistry.lib.collections.ObjectArray;
 import org.blockartistry.lib.font.FastFontRenderer;
 
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.map.hash.TLongObjectHashMap;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
@@ -52,6 +57,7 @@ import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.EnumSkyBlock;
 import net.minecraft.world.WorldEntitySpawner;
 import net.minecraftforge.client.event.RenderWorldLastEvent;
+import net.minecraftforge.event.world.ChunkEvent;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.relauncher.Side;
@@ -162,6 +168,22 @@ public final class LightLevelHUD extends GuiOverlay {
 
 	}
 
+	private static final class LightSample {
+		public int x;
+		public int y;
+		public int z;
+		public float heightAdjust;
+		public int blockLight;
+		public int skyLight;
+		public boolean mobSpawn;
+	}
+
+	private static final class LightSection {
+		public final ObjectArray<LightSample> samples = new ObjectArray<LightSample>();
+		public boolean dirty = true;
+		public int lastPass;
+	}
+
 	private static final class LightCoord {
 		public int x;
 		public double y;
@@ -183,6 +205,11 @@ public final class LightLevelHUD extends GuiOverlay {
 	private static final BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
 	private static int nextCoord = 0;
 
+	// Light samples cached per chunk section. Sections are recomputed when a
+	// block or light update touches them, or when they come into range.
+	private static final TLongObjectHashMap<LightSection> sections = new TLongObjectHashMap<LightSection>();
+	private static int scanPass = 0;
+
 	private static float surfaceRotationAngle = 0F;
 	
 
@@ -237,6 +264,60 @@ public final class LightLevelHUD extends GuiOverlay {
 		return state.getBlock() == Blocks.SNOW_LAYER ? adjust + 0.125F : adjust;
 	}
 
+	private static void markDirty(final int x, final int y, final int z) {
+		if (y < 0 || y > 255)
+			return;
+		final LightSection section = sections.get(BlockPosHelper.sectionKey(x >> 4, y >> 4, z >> 4));
+		if (section != null)
+			section.dirty = true;
+	}
+
+	/*
+	 * Scans the blocks of a chunk section and captures the light data for each
+	 * position that can hold a light level label. Only the parts that do not
+	 * depend on the time of day or display options are captured; the rest is
+	 * applied each update when the labels are generated.
+	 */
+	private static void computeSection(@Nonnull final LightSection section, final int sX, final int sY,
+			final int sZ) {
+		section.samples.clear();
+		section.dirty = false;
+
+		final int baseX = sX << 4;
+		final int baseY = sY << 4;
+		final int baseZ = sZ << 4;
+
+		for (int dX = 0; dX < 16; dX++)
+			for (int dZ = 0; dZ < 16; dZ++) {
+
+				final int trueX = baseX + dX;
+				final int trueZ = baseZ + dZ;
+
+				IBlockState lastState = blocks.getBlockState(trueX, baseY - 1, trueZ);
+
+				for (int dY = 0; dY < 16; dY++) {
+
+					final int trueY = baseY + dY;
+					final IBlockState state = blocks.getBlockState(trueX, trueY, trueZ);
+
+					if (trueY >= 1 && renderLightLevel(state, lastState)) {
+						mutable.setPos(trueX, trueY, trueZ);
+						final LightSample sample = new LightSample();
+						sample.x = trueX;
+						sample.y = trueY;
+						sample.z = trueZ;
+						sample.heightAdjust = heightAdjustment(state, lastState, mutable);
+						sample.mobSpawn = canMobSpawn(mutable);
+						sample.blockLight = blocks.getLightFor(EnumSkyBlock.BLOCK, mutable);
+						sample.skyLight = blocks.getLightFor(EnumSkyBlock.SKY, mutable);
+						section.samples.add(sample);
+					}
+
+					lastState = state;
+				}
+			}
+	}
+
 	protected static void updateLightInfo(@Nonnull final RenderManager manager, final double x, final double y,
 			final double z) {
 		
@@ -276,39 +357,56 @@ public final class LightLevelHUD extends GuiOverlay {
 		final int originX = MathStuff.floor(x) - (rangeXZ / 2);
 		final int originZ = MathStuff.floor(z) - (rangeXZ / 2);
 		final int originY = MathStuff.floor(y) - (rangeY - 3);
-
+		final int maxX = originX + rangeXZ - 1;
+		final int maxZ = originZ + rangeXZ - 1;
+		final int minY = Math.max(originY, 1);
+		final int maxY = Math.min(originY + rangeY - 1, 255);
+
+		// Different world means a different dimension or a reconnect. The
+		// cached sections are no longer valid.
+		if (blocks.getWorld() != EnvironState.getWorld())
+			sections.clear();
 		blocks.setWorld(EnvironState.getWorld());
-		
-		for (int dX = 0; dX < rangeXZ; dX++)
-			for (int dZ = 0; dZ < rangeXZ; dZ++) {
 
-				final int trueX = originX + dX;
-				final int trueZ = originZ + dZ;
-				
-				if(!blocks.isAvailable(trueX, trueZ))
-					return;
-				
-				IBlockState lastState = null;
+		if (minY > maxY)
+			return;
 
-				for (int dY = 0; dY < rangeY; dY++) {
+		scanPass++;
 
-					final int trueY = originY + dY;
+		for (int sX = originX >> 4; sX <= maxX >> 4; sX++)
+			for (int sZ = originZ >> 4; sZ <= maxZ >> 4; sZ++) {
 
-					if (trueY < 1 || !inFrustum(trueX, trueY, trueZ))
-						continue;
+				if (!blocks.isAvailable(sX << 4, sZ << 4))
+					continue;
 
-					final IBlockState state = blocks.getBlockState(trueX, trueY, trueZ);
+				for (int sY = minY >> 4; sY <= maxY >> 4; sY++) {
 
-					if (lastState == null)
-						lastState = blocks.getBlockState(trueX, trueY - 1, trueZ);
+					final long key = BlockPosHelper.sectionKey(sX, sY, sZ);
+					LightSection section = sections.get(key);
+					if (section == null) {
+						section = new LightSection();
+						sections.put(key, section);
+					}
 
-					if (renderLightLevel(state, lastState)) {
-						mutable.setPos(trueX, trueY, trueZ);
+					if (section.dirty)
+						computeSection(section, sX, sY, sZ);
+
+					section.lastPass = scanPass;
+
+					for (int i = 0; i < section.samples.size(); i++) {
+						final LightSample sample = section.samples.get(i);
 
-						final boolean mobSpawn = canMobSpawn(mutable);
+						if (sample.x < originX || sample.x > maxX || sample.z < originZ || sample.z > maxZ
+								|| sample.y < minY || sample.y > maxY)
+							continue;
+
+						if (!inFrustum(sample.x, sample.y, sample.z))
+							continue;
+
+						final boolean mobSpawn = sample.mobSpawn;
 						if (mobSpawn || !ModOptions.llHideSafe) {
-							final int blockLight = blocks.getLightFor(EnumSkyBlock.BLOCK, mutable);
-							final int skyLight = blocks.getLightFor(EnumSkyBlock.SKY, mutable) - skyLightSub;
+							final int blockLight = sample.blockLight;
+							final int skyLight = sample.skyLight - skyLightSub;
 							final int effective = Math.max(blockLight, skyLight);
 							final int result = displayMode == Mode.BLOCK_SKY ? effective : blockLight;
 
@@ -324,24 +422,71 @@ public final class LightLevelHUD extends GuiOverlay {
 
 							if (!(color == colors.safe && ModOptions.llHideSafe)) {
 								final LightCoord coord = nextCoord();
-								coord.x = trueX;
-								coord.y = trueY + heightAdjustment(state, lastState, mutable);
-								coord.z = trueZ;
+								coord.x = sample.x;
+								coord.y = sample.y + sample.heightAdjust;
+								coord.z = sample.z;
 								coord.text = VALUES[result];
 								coord.color = color;
 								coord.margin = -(font.getStringWidth(coord.text) + 1) / 2;
 							}
 						}
 					}
-
-					lastState = state;
 				}
 			}
+
+		// Toss sections that are no longer in range
+		final TLongObjectIterator<LightSection> itr = sections.iterator();
+		while (itr.hasNext()) {
+			itr.advance();
+			if (itr.value().lastPass != scanPass)
+				itr.remove();
+		}
 	}
-	
+
+	@SubscribeEvent
+	public static void onBlockUpdate(@Nonnull final BlockUpdateEvent event) {
+		if (sections.isEmpty() || event.world != blocks.getWorld())
+			return;
+
+		// Labels look at the block below and mob spawn checks look at the
+		// block above, so the neighbors need to be refreshed as well.
+		final int x = event.pos.getX();
+		final int y = event.pos.getY();
+		final int z = event.pos.getZ();
+		markDirty(x, y - 1, z);
+		markDirty(x, y, z);
+		markDirty(x, y + 1, z);
+	}
+
+	@SubscribeEvent
+	public static void onLightUpdate(@Nonnull final LightUpdateEvent event) {
+		if (sections.isEmpty() || event.world != blocks.getWorld())
+			return;
+		markDirty(event.pos.getX(), event.pos.getY(), event.pos.getZ());
+	}
+
+	@SubscribeEvent
+	public static void onChunkLoad(@Nonnull final ChunkEvent.Load event) {
+		if (sections.isEmpty() || event.getWorld() != blocks.getWorld())
+			return;
+
+		// Chunk data arrived from the server so anything cached for the
+		// column is suspect.
+		final int x = event.getChunk().x << 4;
+		final int z = event.getChunk().z << 4;
+		for (int y = 0; y < 256; y += 16)
+			markDirty(x, y, z);
+	}
+
 	@Override
 	public void doTick(final int tickRef) {
-		if (!showHUD || tickRef == 0 || tickRef % 3 != 0)
+		if (!showHUD) {
+			if (!sections.isEmpty())
+				sections.clear();
+			return;
+		}
+
+		if (tickRef == 0 || tickRef % 3 != 0)
 			return;
 
 		displayStyle = DisplayStyle.getStyle(ModOptions.llStyle);
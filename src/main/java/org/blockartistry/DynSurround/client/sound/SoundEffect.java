@@ -155,6 +155,11 @@ public final class SoundEffect implements ISpecialEffect, IEntrySource<SoundEffe
 		return this.type;
 	}
 
+	@Nonnull
+	public String getConditions() {
+		return this.conditions;
+	}
+
 	protected float getVolume() {
 		return this.volume;
 	}
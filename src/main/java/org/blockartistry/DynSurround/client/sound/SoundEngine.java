@@ -89,7 +89,7 @@ public class SoundEngine {
 
 	public boolean isSoundPlaying(@Nonnull final BasicSound<?> sound) {
 		return this.manager.isSoundPlaying(sound) || this.manager.invPlayingSounds.containsKey(sound)
-				|| this.manager.delayedSounds.containsKey(sound);
+				|| this.manager.delayedSounds.containsKey(sound) || sound.getState() == SoundState.DELAYED;
 	}
 
 	public boolean isSoundPlaying(@Nonnull final String soundId) {
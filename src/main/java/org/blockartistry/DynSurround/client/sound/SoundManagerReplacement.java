@@ -44,6 +44,7 @@ import org.blockartistry.DynSurround.registry.SoundRegistry;
 import org.blockartistry.DynSurround.registry.RegistryManager.RegistryType;
 import org.blockartistry.lib.Localization;
 import org.blockartistry.lib.MathStuff;
+import org.blockartistry.lib.collections.TimerWheel;
 
 import gnu.trove.iterator.TObjectIntIterator;
 import gnu.trove.map.hash.TObjectIntHashMap;
@@ -108,6 +109,18 @@ public class SoundManagerReplacement extends SoundManager {
 	private final static int CHECK_INTERVAL = 30 * 20; // 30 seconds
 	private SoundRegistry registry = null;
 	private int nextCheck = 0;
+
+	// Delayed BasicSounds are held here rather than in the vanilla
+	// delayedSounds map so they do not get scanned every tick.
+	private final TimerWheel<BasicSound<?>> delayed = new TimerWheel<BasicSound<?>>(256, 1L);
+	private final TimerWheel.Handler<BasicSound<?>> playDelayed = new TimerWheel.Handler<BasicSound<?>>() {
+		@Override
+		public void onExpire(@Nonnull final BasicSound<?> sound) {
+			if (sound instanceof ITickableSound)
+				((ITickableSound) sound).update();
+			playSound((ISound) sound);
+		}
+	};
 	private boolean givenNotice = false;
 
 	public SoundManagerReplacement(final SoundHandler handler, final GameSettings settings) {
@@ -239,7 +252,7 @@ public class SoundManagerReplacement extends SoundManager {
 
 	private void playDelayedSound(@Nonnull final BasicSound<?> sound, final int delay) {
 		sound.setId(StringUtils.EMPTY);
-		super.playDelayedSound(sound, delay);
+		this.delayed.schedule(sound, this.playTime + delay);
 		sound.setState(SoundState.DELAYED);
 	}
 
@@ -268,6 +281,9 @@ public class SoundManagerReplacement extends SoundManager {
 				this.setState(s, SoundState.DONE);
 			for (final ISound s : this.delayedSounds.keySet())
 				this.setState(s, SoundState.DONE);
+			for (final ISound s : this.delayed)
+				this.setState(s, SoundState.DONE);
+			this.delayed.clear();
 		}
 		super.stopAllSounds();
 	}
@@ -365,6 +381,8 @@ public class SoundManagerReplacement extends SoundManager {
 				iterator1.remove();
 			}
 		}
+
+		this.delayed.advance(this.playTime, this.playDelayed);
 	}
 
 	@SubscribeEvent
@@ -24,6 +24,8 @@
 
 package org.blockartistry.DynSurround.client.weather;
 
+import org.blockartistry.DynSurround.client.fx.ParticleBudget;
+import org.blockartistry.DynSurround.client.fx.ParticleBudget.Source;
 import org.blockartistry.DynSurround.client.fx.particle.ParticleHelper;
 import org.blockartistry.DynSurround.client.handlers.EnvironStateHandler.EnvironState;
 import org.blockartistry.lib.WorldUtils;
@@ -50,7 +52,7 @@ public class NetherSplashRenderer extends StormSplashRenderer {
 	protected void spawnBlockParticle(final IBlockState state, final boolean dust, final World world, final double x,
 			final double y, final double z) {
 
-		if (dust)
+		if (dust && ParticleBudget.tryAcquire(Source.WEATHER))
 			ParticleHelper.spawnParticle(EnumParticleTypes.SMOKE_NORMAL, x, y, z);
 	}
 
@@ -27,6 +27,8 @@ package org.blockartistry.DynSurround.client.weather;
 import java.util.Random;
 
 import org.blockartistry.DynSurround.ModOptions;
+import org.blockartistry.DynSurround.client.fx.ParticleBudget;
+import org.blockartistry.DynSurround.client.fx.ParticleBudget.Source;
 import org.blockartistry.DynSurround.client.fx.ParticleCollections;
 import org.blockartistry.DynSurround.client.fx.particle.ParticleHelper;
 import org.blockartistry.DynSurround.client.sound.SoundEngine;
@@ -115,7 +117,7 @@ public class StormSplashRenderer {
 			ParticleCollections.addRainSplash(world, x, y, z);
 		}
 
-		if (particleType != null)
+		if (particleType != null && ParticleBudget.tryAcquire(Source.WEATHER))
 			ParticleHelper.spawnParticle(particleType, x, y, z);
 	}
 
@@ -38,6 +38,8 @@ import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 import net.minecraftforge.fml.common.network.FMLNetworkEvent.ClientDisconnectionFromServerEvent;
 import net.minecraftforge.fml.relauncher.Side;
 
@@ -231,6 +233,23 @@ public enum WeatherProperties {
 		nextThunderEvent = event.nextThunderEvent;
 	}
 
+	/*
+	 * The server only sends weather updates when something changes, so the
+	 * timers are counted down locally in between.
+	 */
+	@SubscribeEvent
+	public static void onClientTick(@Nonnull final TickEvent.ClientTickEvent event) {
+		if (!serverSideSupport || event.phase != Phase.END || Minecraft.getMinecraft().isGamePaused())
+			return;
+
+		if (nextRainChange > 0)
+			nextRainChange--;
+		if (nextThunderChange > 0)
+			nextThunderChange--;
+		if (nextThunderEvent > 0)
+			nextThunderEvent--;
+	}
+
 	@SubscribeEvent
 	public static void onClientDisconnect(@Nonnull final ClientDisconnectionFromServerEvent event) {
 		serverSideSupport = false;
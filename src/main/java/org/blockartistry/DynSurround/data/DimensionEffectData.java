@@ -33,13 +33,20 @@ import org.blockartistry.DynSurround.ModOptions;
 import org.blockartistry.lib.MathStuff;
 import org.blockartistry.lib.random.XorShiftRandom;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.world.World;
 import net.minecraft.world.storage.MapStorage;
 import net.minecraft.world.storage.WorldSavedData;
 
 /**
- * Per world effect data for effects
+ * Per world effect data for effects. The weather generator changes the
+ * current rain intensity and thunder timer every tick, so those are held in
+ * a plain struct and only flag the data for saving every
+ * weatherSaveInterval ticks, and only if they changed since the last save.
+ * Changes to the rain settings are flagged right away. The saved form is a
+ * small packed byte array rather than a set of named tags.
  */
 public final class DimensionEffectData extends WorldSavedData {
 
@@ -49,6 +56,8 @@ public final class DimensionEffectData extends WorldSavedData {
 	public final static float MAX_INTENSITY = 1.0F;
 
 	private final class NBT {
+		public final static String PACKED = "b";
+		// Legacy keys from before the data was packed
 		public final static String DIMENSION = "d";
 		public final static String INTENSITY = "s";
 		public final static String CURRENT_INTENSITY = "ci";
@@ -57,17 +66,68 @@ public final class DimensionEffectData extends WorldSavedData {
 		public final static String THUNDER_TIMER = "th";
 	};
 
+	/**
+	 * Weather state of a dimension.
+	 */
+	private static final class State {
+
+		private static final int VERSION = 1;
+		public static final int SIZE = 1 + 4 + 4 * 4 + 4;
+
+		public int dimensionId = 0;
+		public float intensity = 0.0F;
+		public float currentIntensity = 0.0F;
+		public float minIntensity = ModOptions.defaultMinRainStrength;
+		public float maxIntensity = ModOptions.defaultMaxRainStrength;
+		public int thunderTimer = 0;
+
+		public void copy(@Nonnull final State state) {
+			this.dimensionId = state.dimensionId;
+			this.intensity = state.intensity;
+			this.currentIntensity = state.currentIntensity;
+			this.minIntensity = state.minIntensity;
+			this.maxIntensity = state.maxIntensity;
+			this.thunderTimer = state.thunderTimer;
+		}
+
+		public boolean isSame(@Nonnull final State state) {
+			return this.dimensionId == state.dimensionId && this.intensity == state.intensity
+					&& this.currentIntensity == state.currentIntensity && this.minIntensity == state.minIntensity
+					&& this.maxIntensity == state.maxIntensity && this.thunderTimer == state.thunderTimer;
+		}
+
+		public void toBytes(@Nonnull final ByteBuf buf) {
+			buf.writeByte(VERSION);
+			buf.writeInt(this.dimensionId);
+			buf.writeFloat(this.intensity);
+			buf.writeFloat(this.currentIntensity);
+			buf.writeFloat(this.minIntensity);
+			buf.writeFloat(this.maxIntensity);
+			buf.writeInt(this.thunderTimer);
+		}
+
+		public boolean fromBytes(@Nonnull final ByteBuf buf) {
+			if (buf.readableBytes() < SIZE || buf.readUnsignedByte() != VERSION)
+				return false;
+			this.dimensionId = buf.readInt();
+			this.intensity = buf.readFloat();
+			this.currentIntensity = buf.readFloat();
+			this.minIntensity = buf.readFloat();
+			this.maxIntensity = buf.readFloat();
+			this.thunderTimer = buf.readInt();
+			return true;
+		}
+	}
+
 	private final Random RANDOM = XorShiftRandom.current();
-	private int dimensionId = 0;
-	private float intensity = 0.0F;
-	private float currentIntensity = 0.0F;
-	private float minIntensity = ModOptions.defaultMinRainStrength;
-	private float maxIntensity = ModOptions.defaultMaxRainStrength;
-	private int thunderTimer = 0;
+	private final State state = new State();
+	private final State saved = new State();
+	private int ticksSinceSave = 0;
 
 	private DimensionEffectData(final int dimension) {
 		this(DSurround.MOD_ID);
-		this.dimensionId = dimension;
+		this.state.dimensionId = dimension;
+		this.markDirty();
 	}
 
 	public DimensionEffectData(@Nonnull final String identifier) {
@@ -75,114 +135,129 @@ public final class DimensionEffectData extends WorldSavedData {
 	}
 
 	public int getDimensionId() {
-		return this.dimensionId;
+		return this.state.dimensionId;
 	}
 
 	public float getRainIntensity() {
-		return this.intensity;
+		return this.state.intensity;
 	}
 
 	public float getCurrentRainIntensity() {
-		return this.currentIntensity;
+		return this.state.currentIntensity;
 	}
 
 	public void setRainIntensity(final float intensity) {
 		final float i = MathStuff.clamp(intensity, MIN_INTENSITY, MAX_INTENSITY);
-		if (this.intensity != i) {
-			this.intensity = i;
+		if (this.state.intensity != i) {
+			this.state.intensity = i;
 			this.markDirty();
 		}
 	}
 
 	public void setCurrentRainIntensity(final float intensity) {
-		final float i = MathStuff.clamp(intensity, 0, this.intensity);
-		if (this.currentIntensity != i) {
-			this.currentIntensity = i;
-			this.markDirty();
-		}
+		this.state.currentIntensity = MathStuff.clamp(intensity, 0, this.state.intensity);
 	}
 
 	public float getMinRainIntensity() {
-		return this.minIntensity;
+		return this.state.minIntensity;
 	}
 
 	public void setMinRainIntensity(final float intensity) {
-		final float i = MathStuff.clamp(intensity, MIN_INTENSITY, this.maxIntensity);
-		if (this.minIntensity != i) {
-			this.minIntensity = i;
+		final float i = MathStuff.clamp(intensity, MIN_INTENSITY, this.state.maxIntensity);
+		if (this.state.minIntensity != i) {
+			this.state.minIntensity = i;
 			this.markDirty();
 		}
 	}
 
 	public float getMaxRainIntensity() {
-		return this.maxIntensity;
+		return this.state.maxIntensity;
 	}
 
 	public void setMaxRainIntensity(final float intensity) {
-		final float i = MathStuff.clamp(intensity, this.minIntensity, MAX_INTENSITY);
-		if (this.maxIntensity != i) {
-			this.maxIntensity = i;
+		final float i = MathStuff.clamp(intensity, this.state.minIntensity, MAX_INTENSITY);
+		if (this.state.maxIntensity != i) {
+			this.state.maxIntensity = i;
 			this.markDirty();
 		}
 	}
 
 	public int getThunderTimer() {
-		return this.thunderTimer;
+		return this.state.thunderTimer;
 	}
 
 	public void setThunderTimer(final int time) {
-		final int t = MathStuff.clamp(time, 0, Integer.MAX_VALUE);
-		if (this.thunderTimer != t) {
-			this.thunderTimer = t;
-			this.markDirty();
-		}
+		this.state.thunderTimer = MathStuff.clamp(time, 0, Integer.MAX_VALUE);
 	}
 
 	public void randomizeRain() {
 		final float result;
-		final float delta = this.maxIntensity - this.minIntensity;
+		final float delta = this.state.maxIntensity - this.state.minIntensity;
 		if (delta <= 0.0F) {
-			result = (float) this.minIntensity;
+			result = (float) this.state.minIntensity;
 		} else {
 			final float mid = delta / 2.0F;
-			result = this.minIntensity + RANDOM.nextFloat() * mid + RANDOM.nextFloat() * mid;
+			result = this.state.minIntensity + RANDOM.nextFloat() * mid + RANDOM.nextFloat() * mid;
 		}
 		setRainIntensity(MathStuff.clamp(result, 0.01F, MAX_INTENSITY));
 		setCurrentRainIntensity(0.0F);
 	}
 
+	/**
+	 * Called once per weather update. Flags the data for saving when the save
+	 * interval has elapsed and the state has moved on since the last save.
+	 */
+	public void tick() {
+		if (++this.ticksSinceSave >= ModOptions.weatherSaveInterval)
+			flush();
+	}
+
+	/**
+	 * Flags the data for saving if the state has moved on since the last save.
+	 */
+	public void flush() {
+		this.ticksSinceSave = 0;
+		if (!this.isDirty() && !this.state.isSame(this.saved))
+			this.markDirty();
+	}
+
 	@Override
 	public void readFromNBT(@Nonnull final NBTTagCompound nbt) {
-		this.dimensionId = nbt.getInteger(NBT.DIMENSION);
-		this.setRainIntensity(nbt.getFloat(NBT.INTENSITY));
-		if (nbt.hasKey(NBT.CURRENT_INTENSITY))
-			this.setCurrentRainIntensity(nbt.getFloat(NBT.CURRENT_INTENSITY));
-		if (nbt.hasKey(NBT.MIN_INTENSITY))
-			this.setMinRainIntensity(nbt.getFloat(NBT.MIN_INTENSITY));
-		if (nbt.hasKey(NBT.MAX_INTENSITY))
-			this.setMaxRainIntensity(nbt.getFloat(NBT.MAX_INTENSITY));
-		if (nbt.hasKey(NBT.THUNDER_TIMER))
-			this.setThunderTimer(nbt.getInteger(NBT.THUNDER_TIMER));
+		if (nbt.hasKey(NBT.PACKED)) {
+			if (!this.state.fromBytes(Unpooled.wrappedBuffer(nbt.getByteArray(NBT.PACKED))))
+				DSurround.log().warn("Unrecognized dimension effect data, using defaults");
+		} else {
+			this.state.dimensionId = nbt.getInteger(NBT.DIMENSION);
+			this.setRainIntensity(nbt.getFloat(NBT.INTENSITY));
+			if (nbt.hasKey(NBT.CURRENT_INTENSITY))
+				this.setCurrentRainIntensity(nbt.getFloat(NBT.CURRENT_INTENSITY));
+			if (nbt.hasKey(NBT.MIN_INTENSITY))
+				this.setMinRainIntensity(nbt.getFloat(NBT.MIN_INTENSITY));
+			if (nbt.hasKey(NBT.MAX_INTENSITY))
+				this.setMaxRainIntensity(nbt.getFloat(NBT.MAX_INTENSITY));
+			if (nbt.hasKey(NBT.THUNDER_TIMER))
+				this.setThunderTimer(nbt.getInteger(NBT.THUNDER_TIMER));
+		}
+		this.saved.copy(this.state);
 	}
 
 	@Override
 	@Nonnull
 	public NBTTagCompound writeToNBT(@Nonnull final NBTTagCompound nbt) {
-		nbt.setInteger(NBT.DIMENSION, this.getDimensionId());
-		nbt.setFloat(NBT.INTENSITY, this.getRainIntensity());
-		nbt.setFloat(NBT.CURRENT_INTENSITY, this.getCurrentRainIntensity());
-		nbt.setFloat(NBT.MIN_INTENSITY, this.getMinRainIntensity());
-		nbt.setFloat(NBT.MAX_INTENSITY, this.getMaxRainIntensity());
-		nbt.setInteger(NBT.THUNDER_TIMER, this.getThunderTimer());
+		final byte[] bytes = new byte[State.SIZE];
+		this.state.toBytes(Unpooled.wrappedBuffer(bytes).writerIndex(0));
+		nbt.setByteArray(NBT.PACKED, bytes);
+		this.saved.copy(this.state);
+		this.ticksSinceSave = 0;
 		return nbt;
 	}
 
 	@Nonnull
 	public String configString() {
 		final StringBuilder builder = new StringBuilder();
-		builder.append("dim ").append(this.dimensionId).append(": ");
-		builder.append("rainIntensity [").append(FORMATTER.format(this.minIntensity * 100));
-		builder.append(",").append(FORMATTER.format(this.maxIntensity * 100));
+		builder.append("dim ").append(this.state.dimensionId).append(": ");
+		builder.append("rainIntensity [").append(FORMATTER.format(this.state.minIntensity * 100));
+		builder.append(",").append(FORMATTER.format(this.state.maxIntensity * 100));
 		builder.append("]");
 		return builder.toString();
 	}
@@ -192,12 +267,12 @@ public final class DimensionEffectData extends WorldSavedData {
 	public String toString() {
 		// Dump out some diagnostics for the current dimension
 		final StringBuilder builder = new StringBuilder();
-		builder.append("dim ").append(this.dimensionId).append(": ");
-		builder.append("rainIntensity: ").append(FORMATTER.format(this.intensity * 100));
-		builder.append('/').append(FORMATTER.format(this.currentIntensity * 100));
-		builder.append(" [").append(FORMATTER.format(this.minIntensity * 100));
-		builder.append(",").append(FORMATTER.format(this.maxIntensity * 100));
-		builder.append("], thunderTimer: ").append(this.thunderTimer);
+		builder.append("dim ").append(this.state.dimensionId).append(": ");
+		builder.append("rainIntensity: ").append(FORMATTER.format(this.state.intensity * 100));
+		builder.append('/').append(FORMATTER.format(this.state.currentIntensity * 100));
+		builder.append(" [").append(FORMATTER.format(this.state.minIntensity * 100));
+		builder.append(",").append(FORMATTER.format(this.state.maxIntensity * 100));
+		builder.append("], thunderTimer: ").append(this.state.thunderTimer);
 		return builder.toString();
 	}
 
@@ -28,8 +28,7 @@ import javax.annotation.Nonnull;
 import org.blockartistry.DynSurround.api.entity.ActionState;
 import org.blockartistry.DynSurround.api.entity.EmojiType;
 import org.blockartistry.DynSurround.api.entity.EmotionalState;
-import org.blockartistry.DynSurround.network.Network;
-import org.blockartistry.DynSurround.network.PacketEntityEmote;
+import org.blockartistry.DynSurround.server.services.EntityEmojiService;
 
 import net.minecraft.entity.Entity;
 
@@ -107,7 +106,7 @@ public final class EmojiData implements IEmojiDataSettable {
 	@Override
 	public void sync() {
 		if (this.entity != null && !this.entity.world.isRemote) {
-			Network.sendToEntityViewers(this.entity, new PacketEntityEmote(this));
+			EntityEmojiService.queueSync(this.entity, this);
 			this.clearDirty();
 		}
 	}
@@ -64,9 +64,21 @@ public final class EmojiDataTables {
 	private final static Map<Class<? extends EntityAIBase>, ActionState> actions = new IdentityHashMap<>();
 	private final static TIntObjectHashMap<EmojiType> emojiMap = new TIntObjectHashMap<EmojiType>();
 
+	// Resolved ActionState for each AI class seen during assessment. Classes
+	// without a mapping resolve to NONE which never wins the priority check.
+	private final static ClassValue<ActionState> resolved = new ClassValue<ActionState>() {
+		@Override
+		protected ActionState computeValue(final Class<?> type) {
+			final ActionState state = actions.get(type);
+			return state != null ? state : ActionState.NONE;
+		}
+	};
+
 	public static void add(@Nonnull final Class<? extends EntityAIBase> clazz, @Nonnull final ActionState state) {
-		if (!actions.containsKey(clazz))
+		if (!actions.containsKey(clazz)) {
 			actions.put(clazz, state);
+			resolved.remove(clazz);
+		}
 	}
 
 	static {
@@ -181,12 +193,13 @@ public final class EmojiDataTables {
 	@Nonnull
 	private static ActionState eval(@Nonnull final Set<EntityAITaskEntry> entries) {
 		ActionState state = ActionState.NONE;
+		int priority = state.getPriority();
 
 		for (final EntityAITaskEntry task : entries) {
-			final ActionState candidate = actions.get(task.action.getClass());
-			if (candidate != null) {
-				if (state.getPriority() < candidate.getPriority())
-					state = candidate;
+			final ActionState candidate = resolved.get(task.action.getClass());
+			if (priority < candidate.getPriority()) {
+				state = candidate;
+				priority = candidate.getPriority();
 			}
 		}
 		return state;
@@ -22,7 +22,7 @@
  * THE SOFTWARE.
  */
 
-package org.blockartistry.DynSurround.entity.ai;
+package org.blockartistry.DynSurround.entity;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -35,10 +35,6 @@ import javax.annotation.Nullable;
 
 import org.apache.commons.lang3.StringUtils;
 import org.blockartistry.DynSurround.DSurround;
-import org.blockartistry.DynSurround.ModOptions;
-import org.blockartistry.DynSurround.network.Locus;
-import org.blockartistry.DynSurround.network.Network;
-import org.blockartistry.DynSurround.network.PacketSpeechBubble;
 import org.blockartistry.lib.Translations;
 import org.blockartistry.lib.WeightTable;
 import org.blockartistry.lib.random.XorShiftRandom;
@@ -47,15 +43,16 @@ import com.google.common.base.Predicate;
 
 import net.minecraft.entity.EntityList;
 import net.minecraft.entity.EntityLiving;
-import net.minecraft.entity.ai.EntityAIBase;
 import net.minecraft.entity.passive.EntitySquid;
 import net.minecraft.util.ResourceLocation;
 
-public class EntityAIChat extends EntityAIBase {
-
-	public static final int PRIORITY = 1000;
+/**
+ * Chat state for an entity. Instances are driven by the chat scheduler on the
+ * server which wakes an entity when its next chat time arrives.
+ */
+public class EntityChat {
 
-	protected static final long RESCHEDULE_THRESHOLD = 100;
+	public static final long RESCHEDULE_THRESHOLD = 100;
 
 	private static class EntityChatData {
 		public static final int DEFAULT_INTERVAL = 400;
@@ -158,17 +155,37 @@ public class EntityAIChat extends EntityAIBase {
 	protected final EntityChatData data;
 	protected final EntityLiving theEntity;
 	protected long nextChat;
+	protected long quietUntil;
 
-	public EntityAIChat(@Nonnull final EntityLiving entity) {
+	public EntityChat(@Nonnull final EntityLiving entity) {
 		this(entity, null);
 	}
 
-	public EntityAIChat(@Nonnull final EntityLiving entity, @Nullable final String entityName) {
+	public EntityChat(@Nonnull final EntityLiving entity, @Nullable final String entityName) {
 		final String theName = StringUtils.isEmpty(entityName) ? getEntityClassName(entity.getClass()) : entityName;
 		this.data = messages.get(theName);
 		this.theEntity = entity;
 		this.nextChat = getWorldTicks() + getNextChatTime();
-		this.setMutexBits(1 << 27);
+	}
+
+	@Nonnull
+	public EntityLiving getEntity() {
+		return this.theEntity;
+	}
+
+	/**
+	 * World tick at which the scheduler should wake this entity.
+	 */
+	public long getNextChat() {
+		return this.nextChat;
+	}
+
+	/**
+	 * Keeps the entity from chatting until the specified world tick. Used when
+	 * another chat source for the same entity takes precedence.
+	 */
+	public void setQuietUntil(final long worldTicks) {
+		this.quietUntil = worldTicks;
 	}
 
 	protected long getWorldTicks() {
@@ -183,22 +200,23 @@ public class EntityAIChat extends EntityAIBase {
 		return getBase() + XorShiftRandom.current().nextInt(getRandom());
 	}
 
-	@Override
-	public void startExecuting() {
-		final Locus point = new Locus(this.theEntity, ModOptions.speechBubbleRange);
-		final PacketSpeechBubble packet = new PacketSpeechBubble(this.theEntity, getChatMessage(), true);
-		Network.sendToAllAround(point, packet);
-		this.nextChat = getWorldTicks() + getNextChatTime();
+	/**
+	 * Reschedules without chatting. Used when the wake up is too far past due
+	 * or there is nobody around to hear it.
+	 */
+	public void skip(final long worldTicks) {
+		this.nextChat = worldTicks + getNextChatTime();
 	}
 
-	@Override
-	public boolean shouldExecute() {
-		final long delta = this.nextChat - getWorldTicks();
-		if (delta <= -RESCHEDULE_THRESHOLD) {
-			this.nextChat = getWorldTicks() + getNextChatTime();
-			return false;
-		}
-		return delta <= 0;
+	/**
+	 * Called by the scheduler when the chat time has arrived. Returns the
+	 * message to display, or null if the entity has nothing to say right now.
+	 * The next chat time is always advanced.
+	 */
+	@Nullable
+	public String chat(final long worldTicks) {
+		this.nextChat = worldTicks + getNextChatTime();
+		return worldTicks < this.quietUntil ? null : getChatMessage();
 	}
 
 }
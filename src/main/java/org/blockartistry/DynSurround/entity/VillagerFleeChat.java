@@ -22,7 +22,7 @@
  * THE SOFTWARE.
  */
 
-package org.blockartistry.DynSurround.entity.ai;
+package org.blockartistry.DynSurround.entity;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -36,20 +36,29 @@ import net.minecraft.entity.monster.EntityZombie;
 import net.minecraft.util.EntitySelectors;
 import net.minecraft.util.math.AxisAlignedBB;
 
-public class EntityAIVillagerFleeChat extends EntityAIChat {
+/**
+ * Chat for a villager that is being threatened by zombies. The threat check
+ * is only made when the scheduler wakes the villager, and while the villager
+ * is calling for help its regular chat is kept quiet.
+ */
+public class VillagerFleeChat extends EntityChat {
 
-	public static final int PRIORITY = 990;
+	// Ticks between threat checks while the villager is not threatened
+	protected static final int RECHECK_INTERVAL = 10;
 
 	protected final Predicate<Entity>[] preds;
+	protected final EntityChat regular;
 
 	@SuppressWarnings("unchecked")
-	public EntityAIVillagerFleeChat(@Nonnull final EntityLiving entity) {
+	public VillagerFleeChat(@Nonnull final EntityLiving entity, @Nullable final EntityChat regular) {
 		super(entity, "villager.flee");
 
+		this.regular = regular;
+		this.nextChat = getWorldTicks() + RECHECK_INTERVAL;
 		this.preds = new Predicate[] { EntitySelectors.CAN_AI_TARGET, new Predicate<Entity>() {
 			public boolean apply(@Nullable Entity entity) {
 				return entity.isEntityAlive()
-						&& EntityAIVillagerFleeChat.this.theEntity.getEntitySenses().canSee(entity);
+						&& VillagerFleeChat.this.theEntity.getEntitySenses().canSee(entity);
 			}
 		}, Predicates.<Entity> alwaysTrue() };
 	}
@@ -61,19 +70,21 @@ public class EntityAIVillagerFleeChat extends EntityAIChat {
 	}
 
 	@Override
-	public void updateTask() {
-		if (getWorldTicks() < this.nextChat)
-			return;
-		super.startExecuting();
+	public void skip(final long worldTicks) {
+		this.nextChat = worldTicks + RECHECK_INTERVAL;
 	}
 
 	@Override
-	public boolean shouldExecute() {
-		return villagerThreatened();
-	}
+	@Nullable
+	public String chat(final long worldTicks) {
+		if (!villagerThreatened()) {
+			this.nextChat = worldTicks + RECHECK_INTERVAL;
+			return null;
+		}
 
-	@Override
-	public void startExecuting() {
-		this.nextChat = getWorldTicks();
+		final String message = super.chat(worldTicks);
+		if (this.regular != null)
+			this.regular.setQuietUntil(this.nextChat);
+		return message;
 	}
 }
@@ -37,6 +37,10 @@ public class EntityAIEmoji extends EntityAIBase {
 
 	public static final int PRIORITY = 400;
 
+	// Number of ticks between assessments. Entities are spread across the
+	// interval by their ID so a large group doesn't assess on the same tick.
+	protected static final int UPDATE_INTERVAL = 5;
+
 	protected final EntityLiving subject;
 	protected IEmojiDataSettable data;
 
@@ -59,6 +63,8 @@ public class EntityAIEmoji extends EntityAIBase {
 		if (this.data == null)
 			this.data = (IEmojiDataSettable) subject.getCapability(CapabilityEmojiData.EMOJI,
 					CapabilityEmojiData.DEFAULT_FACING);
+		else if ((this.subject.ticksExisted + this.subject.getEntityId()) % UPDATE_INTERVAL != 0)
+			return;
 
 		updateActionState();
 		updateEmotionalState();
@@ -77,4 +77,9 @@ final class ChiselFacadeAccessor implements IFacadeAccessor {
 		return null;
 	}
 
+	@Override
+	public boolean isFacade(@Nonnull final IBlockState state) {
+		return IFacadeClass != null && IFacadeClass.isInstance(state.getBlock());
+	}
+
 }
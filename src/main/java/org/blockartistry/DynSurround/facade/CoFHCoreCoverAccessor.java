@@ -74,4 +74,9 @@ public class CoFHCoreCoverAccessor implements IFacadeAccessor {
 		return null;
 	}
 
+	@Override
+	public boolean isFacade(@Nonnull final IBlockState state) {
+		return IFacadeClass != null && IFacadeClass.isInstance(state.getBlock());
+	}
+
 }
@@ -78,4 +78,9 @@ final class EnderIOFacadeAccessor implements IFacadeAccessor {
 		return null;
 	}
 
+	@Override
+	public boolean isFacade(@Nonnull final IBlockState state) {
+		return IFacadeClass != null && IFacadeClass.isInstance(state.getBlock());
+	}
+
 }
@@ -41,6 +41,8 @@ public final class FacadeHelper {
 	public static interface IFacadeAccessor {
 		IBlockState getBlockState(@Nonnull final IBlockState state, @Nonnull final World world,
 				@Nonnull final BlockPos pos, @Nullable final EnumFacing side);
+
+		boolean isFacade(@Nonnull final IBlockState state);
 	}
 
 	private static final List<IFacadeAccessor> accessors = new ArrayList<IFacadeAccessor>();
@@ -74,4 +76,15 @@ public final class FacadeHelper {
 		return state;
 	}
 
+	/**
+	 * Indicates whether the state could be a facade for another state, and
+	 * as such would need to be resolved in world before use.
+	 */
+	public static boolean isFacade(@Nonnull final IBlockState state) {
+		for (int i = 0; i < accessors.size(); i++)
+			if (accessors.get(i).isFacade(state))
+				return true;
+		return false;
+	}
+
 }
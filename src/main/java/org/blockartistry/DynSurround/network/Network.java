@@ -24,22 +24,26 @@
 
 package org.blockartistry.DynSurround.network;
 
-import java.util.Set;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.blockartistry.DynSurround.DSurround;
+
+import gnu.trove.map.hash.TIntObjectHashMap;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.Entity;
-import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.util.IThreadListener;
-import net.minecraft.world.WorldServer;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.eventhandler.Event;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
 import net.minecraftforge.fml.common.network.simpleimpl.SimpleNetworkWrapper;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
@@ -50,35 +54,96 @@ public final class Network {
 	}
 
 	private static final SimpleNetworkWrapper NETWORK = NetworkRegistry.INSTANCE.newSimpleChannel(DSurround.MOD_ID);
+	private static final OutboundQueue OUTBOUND = new OutboundQueue(NETWORK);
+
+	// Server -> Client messages that can be carried in a PacketBundle
+	private static final Map<Class<? extends IMessage>, Integer> clientIds = new IdentityHashMap<>();
+	private static final TIntObjectHashMap<Class<? extends IMessage>> clientMessages = new TIntObjectHashMap<>();
+	private static final TIntObjectHashMap<Class<? extends IMessageHandler<?, ?>>> clientHandlerClasses =
+			new TIntObjectHashMap<>();
+	private static final TIntObjectHashMap<IMessageHandler<IMessage, ?>> clientHandlers = new TIntObjectHashMap<>();
+
+	private static <REQ extends IMessage> void registerClient(
+			@Nonnull final Class<? extends IMessageHandler<REQ, IMessage>> handler, @Nonnull final Class<REQ> message,
+			final int discriminator) {
+		NETWORK.registerMessage(handler, message, discriminator, Side.CLIENT);
+		clientIds.put(message, discriminator);
+		clientMessages.put(discriminator, message);
+		clientHandlerClasses.put(discriminator, handler);
+	}
 
 	public static void initialize() {
 
 		int discriminator = 0;
 
 		// Server -> Client messages
-		NETWORK.registerMessage(PacketWeatherUpdate.PacketHandler.class, PacketWeatherUpdate.class, ++discriminator,
-				Side.CLIENT);
-		NETWORK.registerMessage(PacketHealthChange.PacketHandler.class, PacketHealthChange.class, ++discriminator,
-				Side.CLIENT);
-		NETWORK.registerMessage(PacketSpeechBubble.PacketHandler.class, PacketSpeechBubble.class, ++discriminator,
-				Side.CLIENT);
-		NETWORK.registerMessage(PacketEntityEmote.PacketHandler.class, PacketEntityEmote.class, ++discriminator,
-				Side.CLIENT);
-		NETWORK.registerMessage(PacketThunder.PacketHandler.class, PacketThunder.class, ++discriminator, Side.CLIENT);
-		NETWORK.registerMessage(PacketEnvironment.PacketHandler.class, PacketEnvironment.class, ++discriminator,
-				Side.CLIENT);
-		NETWORK.registerMessage(PacketServerData.PacketHandler.class, PacketServerData.class, ++discriminator,
-				Side.CLIENT);
-		NETWORK.registerMessage(PacketDisplayFootprint.PacketHandler.class, PacketDisplayFootprint.class,
-				++discriminator, Side.CLIENT);
-		NETWORK.registerMessage(PacketPlaySound.PacketHandler.class, PacketPlaySound.class, ++discriminator,
-				Side.CLIENT);
+		registerClient(PacketWeatherUpdate.PacketHandler.class, PacketWeatherUpdate.class, ++discriminator);
+		registerClient(PacketHealthChange.PacketHandler.class, PacketHealthChange.class, ++discriminator);
+		registerClient(PacketSpeechBubble.PacketHandler.class, PacketSpeechBubble.class, ++discriminator);
+		registerClient(PacketEntityEmote.PacketHandler.class, PacketEntityEmote.class, ++discriminator);
+		registerClient(PacketThunder.PacketHandler.class, PacketThunder.class, ++discriminator);
+		registerClient(PacketEnvironment.PacketHandler.class, PacketEnvironment.class, ++discriminator);
+		registerClient(PacketServerData.PacketHandler.class, PacketServerData.class, ++discriminator);
+		registerClient(PacketPlaySound.PacketHandler.class, PacketPlaySound.class, ++discriminator);
+		NETWORK.registerMessage(PacketBundle.PacketHandler.class, PacketBundle.class, ++discriminator, Side.CLIENT);
 
 		// Client -> Server messages
-		NETWORK.registerMessage(PacketDisplayFootprint.PacketHandlerServer.class, PacketDisplayFootprint.class,
-				++discriminator, Side.SERVER);
 		NETWORK.registerMessage(PacketPlaySound.PacketHandlerServer.class, PacketPlaySound.class, ++discriminator,
 				Side.SERVER);
+		NETWORK.registerMessage(PacketServerDataSubscribe.PacketHandlerServer.class, PacketServerDataSubscribe.class,
+				++discriminator, Side.SERVER);
+	}
+
+	// Discriminator of a server -> client message, or -1 if it cannot be
+	// bundled
+	static int getClientId(@Nonnull final IMessage msg) {
+		final Integer id = clientIds.get(msg.getClass());
+		return id != null ? id.intValue() : -1;
+	}
+
+	@Nonnull
+	static IMessage createClient(final int discriminator) {
+		final Class<? extends IMessage> clazz = clientMessages.get(discriminator);
+		if (clazz == null)
+			throw new IllegalStateException("Unknown message discriminator " + discriminator);
+		try {
+			return clazz.newInstance();
+		} catch (final Exception e) {
+			throw new IllegalStateException("Unable to create message " + clazz.getName(), e);
+		}
+	}
+
+	// Runs the handler for a message that arrived inside a PacketBundle
+	@SuppressWarnings("unchecked")
+	static void dispatchClient(final int discriminator, @Nonnull final IMessage msg,
+			@Nullable final MessageContext ctx) {
+		IMessageHandler<IMessage, ?> handler = clientHandlers.get(discriminator);
+		if (handler == null) {
+			try {
+				handler = (IMessageHandler<IMessage, ?>) clientHandlerClasses.get(discriminator).newInstance();
+			} catch (final Exception e) {
+				DSurround.log().error("Unable to create message handler", e);
+				return;
+			}
+			clientHandlers.put(discriminator, handler);
+		}
+		handler.onMessage(msg, ctx);
+	}
+
+	/**
+	 * Sends the messages queued by the send routines. Called by the server
+	 * once a tick after everything else has had a chance to queue.
+	 */
+	public static void flush() {
+		OUTBOUND.drain(FMLCommonHandler.instance().getMinecraftServerInstance());
+	}
+
+	/**
+	 * Discards anything that was queued but not sent. Called when the server
+	 * stops.
+	 */
+	public static void clear() {
+		OUTBOUND.clear();
 	}
 
 	// Package level helper method to fire client side events based on incoming
@@ -98,44 +163,39 @@ public final class Network {
 		});
 	}
 
+	// Package level helper method to run client side work on the main thread.
+	// Tasks run in order with the vanilla packets already queued.
+	static void runClient(@Nonnull final Runnable task) {
+		Minecraft.getMinecraft().addScheduledTask(task);
+	}
+
 	// Package level helper method to fire server side events based on incoming
 	// packets
 	static void postEventServer(@Nonnull final Event event) {
 		postEvent(Side.SERVER, event);
 	}
 
-	// Basic server -> client packet routines
+	// Basic server -> client packet routines. The messages are queued and go
+	// out when the server flushes at the end of the tick. Safe to call from
+	// any thread.
 	public static void sendToPlayer(@Nonnull final EntityPlayerMP player, @Nonnull final IMessage msg) {
-		synchronized (NETWORK) {
-			NETWORK.sendTo(msg, player);
-		}
+		OUTBOUND.toPlayer(player, msg);
 	}
 
 	public static void sendToEntityViewers(@Nonnull final Entity entity, @Nonnull final IMessage msg) {
-		final Set<? extends EntityPlayer> players = ((WorldServer) entity.getEntityWorld()).getEntityTracker()
-				.getTrackingPlayers(entity);
-		synchronized (NETWORK) {
-			for (final EntityPlayer player : players)
-				NETWORK.sendTo(msg, (EntityPlayerMP) player);
-		}
+		OUTBOUND.toEntityViewers(entity, msg);
 	}
 
 	public static void sendToDimension(final int dimensionId, @Nonnull final IMessage msg) {
-		synchronized (NETWORK) {
-			NETWORK.sendToDimension(msg, dimensionId);
-		}
+		OUTBOUND.toDimension(dimensionId, msg);
 	}
 
 	public static void sendToAll(@Nonnull final IMessage msg) {
-		synchronized (NETWORK) {
-			NETWORK.sendToAll(msg);
-		}
+		OUTBOUND.toAll(msg);
 	}
 
 	public static void sendToAllAround(@Nonnull final Locus point, @Nonnull final IMessage msg) {
-		synchronized (NETWORK) {
-			NETWORK.sendToAllAround(msg, point);
-		}
+		OUTBOUND.toAllAround(point, msg);
 	}
 
 	// Basic client -> server packet routines
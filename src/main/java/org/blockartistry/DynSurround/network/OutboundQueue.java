@@ -0,0 +1,253 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.DynSurround.network;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.blockartistry.DynSurround.DSurround;
+import org.blockartistry.DynSurround.ModOptions;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.fml.common.network.NetworkRegistry.TargetPoint;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.SimpleNetworkWrapper;
+
+/**
+ * Outbound server -> client messages. Senders on any thread add to a lock-free
+ * queue and the server thread drains it once a tick. Recipients are resolved
+ * at drain time and the messages for a player are sent as a single frame.
+ * Each message is encoded at most once no matter how many players receive it.
+ */
+final class OutboundQueue {
+
+	// Report interval for the queue stats
+	private static final int STATS_INTERVAL = 20 * 60;
+
+	private static final int PLAYER = 0;
+	private static final int VIEWERS = 1;
+	private static final int DIMENSION = 2;
+	private static final int ALL = 3;
+	private static final int AROUND = 4;
+
+	private static final class Pending {
+		public final int target;
+		public final IMessage msg;
+		public final EntityPlayerMP player;
+		public final Entity entity;
+		public final TargetPoint point;
+		public final int dimension;
+		public final long queued = System.nanoTime();
+		public ByteBuf encoded;
+
+		public Pending(final int target, @Nonnull final IMessage msg, @Nullable final EntityPlayerMP player,
+				@Nullable final Entity entity, @Nullable final TargetPoint point, final int dimension) {
+			this.target = target;
+			this.msg = msg;
+			this.player = player;
+			this.entity = entity;
+			this.point = point;
+			this.dimension = dimension;
+		}
+	}
+
+	private final SimpleNetworkWrapper network;
+	private final Queue<Pending> queue = new ConcurrentLinkedQueue<Pending>();
+	private final Map<EntityPlayerMP, List<Pending>> batches = new IdentityHashMap<EntityPlayerMP, List<Pending>>();
+
+	private int statsTicks;
+	private long statsMessages;
+	private long statsFrames;
+	private int statsMaxDepth;
+	private long statsLatency;
+	private long statsMaxLatency;
+
+	public OutboundQueue(@Nonnull final SimpleNetworkWrapper network) {
+		this.network = network;
+	}
+
+	public void toPlayer(@Nonnull final EntityPlayerMP player, @Nonnull final IMessage msg) {
+		this.queue.add(new Pending(PLAYER, msg, player, null, null, 0));
+	}
+
+	public void toEntityViewers(@Nonnull final Entity entity, @Nonnull final IMessage msg) {
+		this.queue.add(new Pending(VIEWERS, msg, null, entity, null, 0));
+	}
+
+	public void toDimension(final int dimensionId, @Nonnull final IMessage msg) {
+		this.queue.add(new Pending(DIMENSION, msg, null, null, null, dimensionId));
+	}
+
+	public void toAll(@Nonnull final IMessage msg) {
+		this.queue.add(new Pending(ALL, msg, null, null, null, 0));
+	}
+
+	public void toAllAround(@Nonnull final TargetPoint point, @Nonnull final IMessage msg) {
+		this.queue.add(new Pending(AROUND, msg, null, null, point, point.dimension));
+	}
+
+	public void clear() {
+		this.queue.clear();
+		this.batches.clear();
+	}
+
+	private void batch(@Nonnull final EntityPlayerMP player, @Nonnull final Pending p) {
+		if (player.hasDisconnected())
+			return;
+		List<Pending> list = this.batches.get(player);
+		if (list == null)
+			this.batches.put(player, list = new ArrayList<Pending>());
+		list.add(p);
+	}
+
+	private void resolve(@Nonnull final MinecraftServer server, @Nonnull final Pending p) {
+		switch (p.target) {
+		case PLAYER:
+			batch(p.player, p);
+			break;
+		case VIEWERS:
+			if (p.entity.getEntityWorld() instanceof WorldServer)
+				for (final EntityPlayer player : ((WorldServer) p.entity.getEntityWorld()).getEntityTracker()
+						.getTrackingPlayers(p.entity))
+					batch((EntityPlayerMP) player, p);
+			break;
+		default:
+			final List<EntityPlayerMP> players = server.getPlayerList().getPlayers();
+			for (int i = 0; i < players.size(); i++) {
+				final EntityPlayerMP player = players.get(i);
+				if (p.target == ALL)
+					batch(player, p);
+				else if (player.dimension == p.dimension) {
+					if (p.target == DIMENSION)
+						batch(player, p);
+					else {
+						final double dX = p.point.x - player.posX;
+						final double dY = p.point.y - player.posY;
+						final double dZ = p.point.z - player.posZ;
+						if (dX * dX + dY * dY + dZ * dZ < p.point.range * p.point.range)
+							batch(player, p);
+					}
+				}
+			}
+		}
+	}
+
+	@Nonnull
+	private static ByteBuf encode(@Nonnull final Pending p) {
+		if (p.encoded == null) {
+			p.encoded = Unpooled.buffer();
+			p.msg.toBytes(p.encoded);
+		}
+		return p.encoded;
+	}
+
+	/**
+	 * Drains the queue and sends the results. Has to be called on the server
+	 * thread.
+	 */
+	public void drain(@Nonnull final MinecraftServer server) {
+		final long now = System.nanoTime();
+		int depth = 0;
+
+		Pending p;
+		while ((p = this.queue.poll()) != null) {
+			depth++;
+			final long latency = now - p.queued;
+			this.statsLatency += latency;
+			if (latency > this.statsMaxLatency)
+				this.statsMaxLatency = latency;
+			resolve(server, p);
+		}
+
+		this.statsMessages += depth;
+		if (depth > this.statsMaxDepth)
+			this.statsMaxDepth = depth;
+
+		if (!this.batches.isEmpty()) {
+			for (final Map.Entry<EntityPlayerMP, List<Pending>> e : this.batches.entrySet())
+				send(e.getKey(), e.getValue());
+			this.batches.clear();
+		}
+
+		if (++this.statsTicks >= STATS_INTERVAL)
+			reportStats();
+	}
+
+	private void send(@Nonnull final EntityPlayerMP player, @Nonnull final List<Pending> list) {
+		if (list.size() == 1) {
+			this.network.sendTo(list.get(0).msg, player);
+			this.statsFrames++;
+			return;
+		}
+
+		final PacketBundle bundle = new PacketBundle();
+		for (int i = 0; i < list.size(); i++) {
+			final Pending p = list.get(i);
+			final int id = Network.getClientId(p.msg);
+			if (id < 0) {
+				// Not something the client knows how to unbundle
+				this.network.sendTo(p.msg, player);
+				this.statsFrames++;
+			} else {
+				bundle.add(id, encode(p));
+			}
+		}
+
+		if (!bundle.isEmpty()) {
+			this.network.sendTo(bundle, player);
+			this.statsFrames++;
+		}
+	}
+
+	private void reportStats() {
+		if (this.statsMessages > 0)
+			DSurround.log().debug(ModOptions.Trace.NETWORK_STATS,
+					"Outbound: %d messages in %d frames, depth avg %.1f max %d, latency avg %.2fms max %.2fms",
+					this.statsMessages, this.statsFrames, (double) this.statsMessages / this.statsTicks,
+					this.statsMaxDepth, this.statsLatency / 1000000D / this.statsMessages,
+					this.statsMaxLatency / 1000000D);
+
+		this.statsTicks = 0;
+		this.statsMessages = 0;
+		this.statsFrames = 0;
+		this.statsMaxDepth = 0;
+		this.statsLatency = 0;
+		this.statsMaxLatency = 0;
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.DynSurround.network;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import gnu.trove.list.array.TIntArrayList;
+import io.netty.buffer.ByteBuf;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+/**
+ * Frame holding several server -> client messages bound for the same player.
+ * Each message is written with its discriminator and length so the client can
+ * decode and dispatch it as if it had arrived on its own.
+ */
+public class PacketBundle implements IMessage {
+
+	public static class PacketHandler implements IMessageHandler<PacketBundle, IMessage> {
+		@Override
+		@Nullable
+		public IMessage onMessage(@Nonnull final PacketBundle message, @Nullable final MessageContext ctx) {
+			for (int i = 0; i < message.messages.size(); i++)
+				Network.dispatchClient(message.ids.get(i), message.messages.get(i), ctx);
+			return null;
+		}
+	}
+
+	// Server side: the encoded form of each message
+	private final List<ByteBuf> encoded = new ArrayList<ByteBuf>();
+
+	// Client side: the decoded messages
+	private final List<IMessage> messages = new ArrayList<IMessage>();
+
+	private final TIntArrayList ids = new TIntArrayList();
+
+	public PacketBundle() {
+
+	}
+
+	void add(final int id, @Nonnull final ByteBuf data) {
+		this.ids.add(id);
+		this.encoded.add(data);
+	}
+
+	boolean isEmpty() {
+		return this.ids.isEmpty();
+	}
+
+	@Override
+	public void fromBytes(@Nonnull final ByteBuf buf) {
+		final int count = ByteBufUtils.readVarInt(buf, 5);
+		for (int i = 0; i < count; i++) {
+			final int id = buf.readUnsignedByte();
+			final int length = ByteBufUtils.readVarInt(buf, 5);
+			final IMessage msg = Network.createClient(id);
+			msg.fromBytes(buf.readSlice(length));
+			this.ids.add(id);
+			this.messages.add(msg);
+		}
+	}
+
+	@Override
+	public void toBytes(@Nonnull final ByteBuf buf) {
+		ByteBufUtils.writeVarInt(buf, this.encoded.size(), 5);
+		for (int i = 0; i < this.encoded.size(); i++) {
+			final ByteBuf data = this.encoded.get(i);
+			buf.writeByte(this.ids.get(i));
+			ByteBufUtils.writeVarInt(buf, data.readableBytes(), 5);
+			buf.writeBytes(data, data.readerIndex(), data.readableBytes());
+		}
+	}
+
+}
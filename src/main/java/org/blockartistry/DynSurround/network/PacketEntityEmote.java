@@ -33,53 +33,80 @@ import org.blockartistry.DynSurround.api.entity.EmotionalState;
 import org.blockartistry.DynSurround.api.entity.IEmojiData;
 import org.blockartistry.DynSurround.api.events.EntityEmojiEvent;
 
+import gnu.trove.list.array.TIntArrayList;
 import io.netty.buffer.ByteBuf;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
 import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
 
+/**
+ * Carries the emoji state changes for a batch of entities. The server
+ * collects the changes made during a tick and sends each viewing player a
+ * single packet containing the entities it can see.
+ */
 public class PacketEntityEmote implements IMessage {
 
 	public static class PacketHandler implements IMessageHandler<PacketEntityEmote, IMessage> {
 		@Override
 		@Nullable
 		public IMessage onMessage(@Nonnull final PacketEntityEmote message, @Nullable final MessageContext ctx) {
-			Network.postEvent(new EntityEmojiEvent(message.entityId, message.actionState, message.emotionalState,
-					message.emojiType));
+			for (int i = 0; i < message.entityIds.size(); i++) {
+				final int state = message.states.get(i);
+				Network.postEvent(new EntityEmojiEvent(message.entityIds.get(i), ActionState.get(state >> 16),
+						EmotionalState.get((state >> 8) & 0xFF), EmojiType.get(state & 0xFF)));
+			}
 			return null;
 		}
 	}
 
-	private int entityId;
-	private ActionState actionState = ActionState.NONE;
-	private EmotionalState emotionalState = EmotionalState.NEUTRAL;
-	private EmojiType emojiType = EmojiType.NONE;
+	private final TIntArrayList entityIds = new TIntArrayList();
+	private final TIntArrayList states = new TIntArrayList();
 
 	public PacketEntityEmote() {
 
 	}
 
 	public PacketEntityEmote(@Nonnull final IEmojiData data) {
-		this.entityId = data.getEntityId();
-		this.actionState = data.getActionState();
-		this.emotionalState = data.getEmotionalState();
-		this.emojiType = data.getEmojiType();
+		add(data.getEntityId(), pack(data));
+	}
+
+	/**
+	 * Packs the emoji state of an entity so it can be captured once and added
+	 * to the packets of several players.
+	 */
+	public static int pack(@Nonnull final IEmojiData data) {
+		return (ActionState.getId(data.getActionState()) & 0xFF) << 16
+				| (EmotionalState.getId(data.getEmotionalState()) & 0xFF) << 8
+				| (EmojiType.getId(data.getEmojiType()) & 0xFF);
+	}
+
+	public void add(final int entityId, final int state) {
+		this.entityIds.add(entityId);
+		this.states.add(state);
+	}
+
+	public boolean isEmpty() {
+		return this.entityIds.isEmpty();
 	}
 
 	@Override
 	public void fromBytes(@Nonnull final ByteBuf buf) {
-		this.entityId = buf.readInt();
-		this.actionState = ActionState.get(buf.readByte());
-		this.emotionalState = EmotionalState.get(buf.readByte());
-		this.emojiType = EmojiType.get(buf.readByte());
+		final int count = ByteBufUtils.readVarInt(buf, 5);
+		for (int i = 0; i < count; i++) {
+			final int entityId = buf.readInt();
+			final int state = buf.readUnsignedMedium();
+			add(entityId, state);
+		}
 	}
 
 	@Override
 	public void toBytes(@Nonnull final ByteBuf buf) {
-		buf.writeInt(this.entityId);
-		buf.writeByte(ActionState.getId(this.actionState));
-		buf.writeByte(EmotionalState.getId(this.emotionalState));
-		buf.writeByte(EmojiType.getId(this.emojiType));
+		ByteBufUtils.writeVarInt(buf, this.entityIds.size(), 5);
+		for (int i = 0; i < this.entityIds.size(); i++) {
+			buf.writeInt(this.entityIds.get(i));
+			buf.writeMedium(this.states.get(i));
+		}
 	}
 
 }
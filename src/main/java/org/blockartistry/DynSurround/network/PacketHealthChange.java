@@ -29,62 +29,108 @@ import javax.annotation.Nullable;
 
 import org.blockartistry.DynSurround.client.event.PopoffEvent;
 
+import gnu.trove.list.array.TFloatArrayList;
+import gnu.trove.list.array.TIntArrayList;
 import io.netty.buffer.ByteBuf;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
 import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
 
+/**
+ * Health changes for one or more entities. The server sums the damage and
+ * healing of an entity over a tick and sends each nearby player a single
+ * packet covering all the entities it can see change.
+ */
 public class PacketHealthChange implements IMessage {
-	
+
+	private static final int CRITICAL = 0x1;
+	private static final int DAMAGE = 0x2;
+	private static final int HEAL = 0x4;
+
 	public static class PacketHandler implements IMessageHandler<PacketHealthChange, IMessage> {
 		@Override
 		@Nullable
 		public IMessage onMessage(@Nonnull final PacketHealthChange message, @Nullable final MessageContext ctx) {
-			Network.postEvent(new PopoffEvent(message.entityId, message.posX, message.posY, message.posZ,
-					message.isCritical, message.amount));
+			for (int i = 0; i < message.entityIds.size(); i++) {
+				final int entityId = message.entityIds.get(i);
+				final int flags = message.flags.get(i);
+				final float x = message.positions.get(i * 3);
+				final float y = message.positions.get(i * 3 + 1);
+				final float z = message.positions.get(i * 3 + 2);
+				if ((flags & DAMAGE) != 0)
+					Network.postEvent(new PopoffEvent(entityId, x, y, z, (flags & CRITICAL) != 0,
+							message.damage.get(i)));
+				if ((flags & HEAL) != 0)
+					Network.postEvent(new PopoffEvent(entityId, x, y, z, false, -message.heal.get(i)));
+			}
 			return null;
 		}
 	}
 
-	private int entityId;
-	private float posX;
-	private float posY;
-	private float posZ;
-	private boolean isCritical;
-	private int amount;
+	private final TIntArrayList entityIds = new TIntArrayList();
+	private final TFloatArrayList positions = new TFloatArrayList();
+	private final TIntArrayList flags = new TIntArrayList();
+	private final TIntArrayList damage = new TIntArrayList();
+	private final TIntArrayList heal = new TIntArrayList();
 
 	public PacketHealthChange() {
 
 	}
 
-	public PacketHealthChange(final int id, final float x, final float y, final float z, final boolean isCritical,
-			final int amount) {
-		this.entityId = id;
-		this.posX = x;
-		this.posY = y;
-		this.posZ = z;
-		this.isCritical = isCritical;
-		this.amount = amount;
+	/**
+	 * Adds the summed health change of an entity. Damage and healing are
+	 * carried separately so the client can show a popoff for each.
+	 */
+	public void add(final int id, final float x, final float y, final float z, final boolean isCritical,
+			final boolean damaged, final int damage, final boolean healed, final int heal) {
+		int f = 0;
+		if (isCritical)
+			f |= CRITICAL;
+		if (damaged)
+			f |= DAMAGE;
+		if (healed)
+			f |= HEAL;
+
+		this.entityIds.add(id);
+		this.positions.add(x);
+		this.positions.add(y);
+		this.positions.add(z);
+		this.flags.add(f);
+		this.damage.add(damage);
+		this.heal.add(heal);
 	}
 
 	@Override
 	public void fromBytes(@Nonnull final ByteBuf buf) {
-		this.entityId = buf.readInt();
-		this.posX = buf.readFloat();
-		this.posY = buf.readFloat();
-		this.posZ = buf.readFloat();
-		this.isCritical = buf.readBoolean();
-		this.amount = buf.readInt();
+		final int count = ByteBufUtils.readVarInt(buf, 5);
+		for (int i = 0; i < count; i++) {
+			this.entityIds.add(buf.readInt());
+			this.positions.add(buf.readFloat());
+			this.positions.add(buf.readFloat());
+			this.positions.add(buf.readFloat());
+			final int f = buf.readUnsignedByte();
+			this.flags.add(f);
+			this.damage.add((f & DAMAGE) != 0 ? ByteBufUtils.readVarInt(buf, 5) : 0);
+			this.heal.add((f & HEAL) != 0 ? ByteBufUtils.readVarInt(buf, 5) : 0);
+		}
 	}
 
 	@Override
 	public void toBytes(@Nonnull final ByteBuf buf) {
-		buf.writeInt(this.entityId);
-		buf.writeFloat(this.posX);
-		buf.writeFloat(this.posY);
-		buf.writeFloat(this.posZ);
-		buf.writeBoolean(this.isCritical);
-		buf.writeInt(this.amount);
+		ByteBufUtils.writeVarInt(buf, this.entityIds.size(), 5);
+		for (int i = 0; i < this.entityIds.size(); i++) {
+			final int f = this.flags.get(i);
+			buf.writeInt(this.entityIds.get(i));
+			buf.writeFloat(this.positions.get(i * 3));
+			buf.writeFloat(this.positions.get(i * 3 + 1));
+			buf.writeFloat(this.positions.get(i * 3 + 2));
+			buf.writeByte(f);
+			if ((f & DAMAGE) != 0)
+				ByteBufUtils.writeVarInt(buf, this.damage.get(i), 5);
+			if ((f & HEAL) != 0)
+				ByteBufUtils.writeVarInt(buf, this.heal.get(i), 5);
+		}
 	}
 
 }
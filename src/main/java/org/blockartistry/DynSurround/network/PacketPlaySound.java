@@ -59,7 +59,8 @@ public class PacketPlaySound implements IMessage {
 		@Nullable
 		public IMessage onMessage(@Nonnull final PacketPlaySound message, @Nullable final MessageContext ctx) {
 			// No event - turn around quick and broadcast to necessary
-			// clients. This should take place on a Netty thread.
+			// clients. This takes place on a Netty thread so the message
+			// is queued and goes out on the next server tick.
 			Network.sendToAllAround(message.locus, message);
 			return null;
 		}
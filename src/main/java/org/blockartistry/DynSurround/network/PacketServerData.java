@@ -31,6 +31,7 @@ import org.blockartistry.DynSurround.client.event.ServerDataEvent;
 
 import gnu.trove.iterator.TIntDoubleIterator;
 import gnu.trove.map.hash.TIntDoubleHashMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
 import io.netty.buffer.ByteBuf;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
@@ -42,14 +43,16 @@ public class PacketServerData implements IMessage {
 		@Override
 		@Nullable
 		public IMessage onMessage(@Nonnull final PacketServerData message, @Nullable final MessageContext ctx) {
-			Network.postEvent(
-					new ServerDataEvent(message.tMap, message.meanTickTime, message.free, message.total, message.max));
+			Network.postEvent(new ServerDataEvent(message.tMap, message.meanTickTime, message.pMap,
+					message.tickPercentiles, message.free, message.total, message.max));
 			return null;
 		}
 	}
 
 	private double meanTickTime;
+	private float[] tickPercentiles;
 	private TIntDoubleHashMap tMap;
+	private TIntObjectHashMap<float[]> pMap;
 	private int free;
 	private int total;
 	private int max;
@@ -58,22 +61,43 @@ public class PacketServerData implements IMessage {
 
 	}
 
-	public PacketServerData(@Nonnull final TIntDoubleHashMap tps, final double meanTickTime, final int memFree,
-			int memTotal, int memMax) {
+	/**
+	 * Tick times are in milliseconds. Percentiles are p50, p95 and p99 in that
+	 * order.
+	 */
+	public PacketServerData(@Nonnull final TIntDoubleHashMap tps,
+			@Nonnull final TIntObjectHashMap<float[]> percentiles, final double meanTickTime,
+			@Nonnull final float[] tickPercentiles, final int memFree, int memTotal, int memMax) {
 		this.meanTickTime = meanTickTime;
+		this.tickPercentiles = tickPercentiles;
 		this.tMap = tps;
+		this.pMap = percentiles;
 		this.free = memFree;
 		this.total = memTotal;
 		this.max = memMax;
 	}
 
+	@Nonnull
+	private static float[] readPercentiles(@Nonnull final ByteBuf buf) {
+		return new float[] { buf.readFloat(), buf.readFloat(), buf.readFloat() };
+	}
+
+	private static void writePercentiles(@Nonnull final ByteBuf buf, @Nullable final float[] p) {
+		for (int i = 0; i < 3; i++)
+			buf.writeFloat(p != null ? p[i] : 0F);
+	}
+
 	@Override
 	public void fromBytes(@Nonnull final ByteBuf buf) {
 		this.meanTickTime = buf.readDouble();
+		this.tickPercentiles = readPercentiles(buf);
 		int len = buf.readInt();
 		this.tMap = new TIntDoubleHashMap(len);
+		this.pMap = new TIntObjectHashMap<float[]>(len);
 		while (len-- != 0) {
-			this.tMap.put(buf.readInt(), buf.readDouble());
+			final int dim = buf.readInt();
+			this.tMap.put(dim, buf.readDouble());
+			this.pMap.put(dim, readPercentiles(buf));
 		}
 		this.free = buf.readInt();
 		this.total = buf.readInt();
@@ -83,12 +107,14 @@ public class PacketServerData implements IMessage {
 	@Override
 	public void toBytes(@Nonnull final ByteBuf buf) {
 		buf.writeDouble(this.meanTickTime);
+		writePercentiles(buf, this.tickPercentiles);
 		buf.writeInt(this.tMap.size());
 		TIntDoubleIterator i = this.tMap.iterator();
 		while (i.hasNext()) {
 			i.advance();
 			buf.writeInt(i.key());
 			buf.writeDouble(i.value());
+			writePercentiles(buf, this.pMap.get(i.key()));
 		}
 		buf.writeInt(this.free);
 		buf.writeInt(this.total);
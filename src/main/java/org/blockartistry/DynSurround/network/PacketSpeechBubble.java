@@ -24,11 +24,15 @@
 
 package org.blockartistry.DynSurround.network;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import org.blockartistry.DynSurround.api.events.SpeechTextEvent;
 
+import gnu.trove.list.array.TIntArrayList;
 import io.netty.buffer.ByteBuf;
 import net.minecraft.entity.Entity;
 import net.minecraftforge.fml.common.network.ByteBufUtils;
@@ -36,20 +40,26 @@ import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
 import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
 
+/**
+ * Carries one or more speech bubbles. Entity chat is collected over a tick and
+ * sent to each player as a single packet.
+ */
 public class PacketSpeechBubble implements IMessage {
 
 	public static class PacketHandler implements IMessageHandler<PacketSpeechBubble, IMessage> {
 		@Override
 		@Nullable
 		public IMessage onMessage(@Nonnull final PacketSpeechBubble message, @Nullable final MessageContext ctx) {
-			Network.postEvent(new SpeechTextEvent(message.entityId, message.message, message.translate));
+			for (int i = 0; i < message.entityIds.size(); i++)
+				Network.postEvent(new SpeechTextEvent(message.entityIds.get(i), message.messages.get(i),
+						message.translate.get(i)));
 			return null;
 		}
 	}
 
-	protected int entityId;
-	protected String message;
-	protected boolean translate;
+	protected final TIntArrayList entityIds = new TIntArrayList();
+	protected final List<String> messages = new ArrayList<String>();
+	protected final List<Boolean> translate = new ArrayList<Boolean>();
 
 	public PacketSpeechBubble() {
 
@@ -57,23 +67,37 @@ public class PacketSpeechBubble implements IMessage {
 
 	public PacketSpeechBubble(@Nonnull final Entity player, @Nonnull final String message,
 			final boolean translate) {
-		this.entityId = player.getEntityId();
-		this.message = message;
-		this.translate = translate;
+		add(player, message, translate);
+	}
+
+	public void add(@Nonnull final Entity entity, @Nonnull final String message, final boolean translate) {
+		add(entity.getEntityId(), message, translate);
+	}
+
+	protected void add(final int entityId, @Nonnull final String message, final boolean translate) {
+		this.entityIds.add(entityId);
+		this.messages.add(message);
+		this.translate.add(translate);
 	}
 
 	@Override
 	public void fromBytes(@Nonnull final ByteBuf buf) {
-		this.entityId = buf.readInt();
-		this.message = ByteBufUtils.readUTF8String(buf);
-		this.translate = buf.readBoolean();
+		final int count = ByteBufUtils.readVarInt(buf, 5);
+		for (int i = 0; i < count; i++) {
+			final int entityId = buf.readInt();
+			final String message = ByteBufUtils.readUTF8String(buf);
+			add(entityId, message, buf.readBoolean());
+		}
 	}
 
 	@Override
 	public void toBytes(@Nonnull final ByteBuf buf) {
-		buf.writeInt(this.entityId);
-		ByteBufUtils.writeUTF8String(buf, this.message);
-		buf.writeBoolean(this.translate);
+		ByteBufUtils.writeVarInt(buf, this.entityIds.size(), 5);
+		for (int i = 0; i < this.entityIds.size(); i++) {
+			buf.writeInt(this.entityIds.get(i));
+			ByteBufUtils.writeUTF8String(buf, this.messages.get(i));
+			buf.writeBoolean(this.translate.get(i));
+		}
 	}
 
 }
@@ -28,24 +28,44 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import org.blockartistry.DynSurround.api.events.WeatherUpdateEvent;
-import org.blockartistry.DynSurround.client.handlers.EnvironStateHandler.EnvironState;
+import org.blockartistry.lib.MathStuff;
 
 import io.netty.buffer.ByteBuf;
+import net.minecraft.client.Minecraft;
 import net.minecraft.world.World;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
 import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
 
+/**
+ * State of the weather in a dimension. The server only sends this when
+ * something changes (or when a player enters the dimension), so the client
+ * counts the timers down on its own in between. Strengths are sent as 16 bit
+ * fixed point and timers as var ints.
+ */
 public final class PacketWeatherUpdate implements IMessage {
 
+	private static final float FIXED_SCALE = 65535.0F;
+
 	public static class PacketHandler implements IMessageHandler<PacketWeatherUpdate, IMessage> {
 		@Override
 		@Nullable
 		public IMessage onMessage(@Nonnull final PacketWeatherUpdate message, @Nullable final MessageContext ctx) {
-			final World world = EnvironState.getWorld();
-			if (world != null && world.provider != null && world.provider.getDimension() == message.dimension)
-				Network.postEvent(new WeatherUpdateEvent(world, message.intensity, message.maxIntensity,
-						message.nextRainChange, message.thunderStrength, message.thunderChange, message.thunderEvent));
+			// The snapshot sent on login or dimension change can arrive before
+			// the client has switched worlds, so the dimension can only be
+			// checked once the join/respawn queued ahead of it has run.
+			Network.runClient(new Runnable() {
+				@Override
+				public void run() {
+					final World world = Minecraft.getMinecraft().world;
+					if (world != null && world.provider != null && world.provider.getDimension() == message.dimension)
+						MinecraftForge.EVENT_BUS.post(new WeatherUpdateEvent(world, message.intensity,
+								message.maxIntensity, message.nextRainChange, message.thunderStrength,
+								message.thunderChange, message.thunderEvent));
+				}
+			});
 			return null;
 		}
 	}
@@ -79,26 +99,34 @@ public final class PacketWeatherUpdate implements IMessage {
 		this.thunderEvent = thunderEvent;
 	}
 
+	private static float readFixed(@Nonnull final ByteBuf buf) {
+		return buf.readUnsignedShort() / FIXED_SCALE;
+	}
+
+	private static void writeFixed(@Nonnull final ByteBuf buf, final float value) {
+		buf.writeShort(Math.round(MathStuff.clamp(value, 0.0F, 1.0F) * FIXED_SCALE));
+	}
+
 	@Override
 	public void fromBytes(@Nonnull final ByteBuf buf) {
 		this.dimension = buf.readShort();
-		this.intensity = buf.readFloat();
-		this.maxIntensity = buf.readFloat();
-		this.nextRainChange = buf.readInt();
-		this.thunderStrength = buf.readFloat();
-		this.thunderChange = buf.readInt();
-		this.thunderEvent = buf.readInt();
+		this.intensity = readFixed(buf);
+		this.maxIntensity = readFixed(buf);
+		this.nextRainChange = ByteBufUtils.readVarInt(buf, 5);
+		this.thunderStrength = readFixed(buf);
+		this.thunderChange = ByteBufUtils.readVarInt(buf, 5);
+		this.thunderEvent = ByteBufUtils.readVarInt(buf, 5);
 	}
 
 	@Override
 	public void toBytes(@Nonnull final ByteBuf buf) {
 		buf.writeShort(this.dimension);
-		buf.writeFloat(this.intensity);
-		buf.writeFloat(this.maxIntensity);
-		buf.writeInt(this.nextRainChange);
-		buf.writeFloat(this.thunderStrength);
-		buf.writeInt(this.thunderChange);
-		buf.writeInt(this.thunderEvent);
+		writeFixed(buf, this.intensity);
+		writeFixed(buf, this.maxIntensity);
+		ByteBufUtils.writeVarInt(buf, this.nextRainChange, 5);
+		writeFixed(buf, this.thunderStrength);
+		ByteBufUtils.writeVarInt(buf, this.thunderChange, 5);
+		ByteBufUtils.writeVarInt(buf, this.thunderEvent, 5);
 	}
 
 }
@@ -24,6 +24,7 @@
 package org.blockartistry.DynSurround.registry;
 
 import java.lang.reflect.Field;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
@@ -40,8 +41,8 @@ import org.blockartistry.DynSurround.data.xface.SoundConfig;
 import org.blockartistry.DynSurround.data.xface.SoundType;
 import org.blockartistry.DynSurround.registry.RegistryManager.RegistryType;
 import org.blockartistry.lib.Color;
+import org.blockartistry.lib.ConditionalWeightTable;
 import org.blockartistry.lib.MyUtils;
-import org.blockartistry.lib.WeightTable;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
@@ -81,7 +82,9 @@ public final class BiomeInfo implements Comparable<BiomeInfo> {
 
 	protected SoundEffect[] sounds = NO_SOUNDS;
 	protected SoundEffect[] spotSounds = NO_SOUNDS;
+	protected ConditionalWeightTable<SoundEffect> spotSoundTable;
 	protected int spotSoundChance = DEFAULT_SPOT_CHANCE;
+	protected BitSet soundMask = new BitSet();
 
 	protected final Set<BiomeDictionary.Type> biomeTypes;
 
@@ -195,6 +198,7 @@ public final class BiomeInfo implements Comparable<BiomeInfo> {
 
 	void addSpotSound(final SoundEffect sound) {
 		this.spotSounds = MyUtils.append(this.spotSounds, sound);
+		this.spotSoundTable = null;
 	}
 
 	public boolean isFake() {
@@ -226,6 +230,23 @@ public final class BiomeInfo implements Comparable<BiomeInfo> {
 	}
 
 	@Nonnull
+	public SoundEffect[] getSounds() {
+		return this.sounds;
+	}
+
+	/**
+	 * Mask over the BiomeSoundTable of the registry identifying the sounds of
+	 * this biome.
+	 */
+	@Nonnull
+	public BitSet getSoundMask() {
+		return this.soundMask;
+	}
+
+	void setSoundMask(@Nonnull final BitSet mask) {
+		this.soundMask = mask;
+	}
+
 	public void findSoundMatches(@Nonnull final List<SoundEffect> results) {
 		for (int i = 0; i < this.sounds.length; i++) {
 			final SoundEffect sound = this.sounds[i];
@@ -237,12 +258,20 @@ public final class BiomeInfo implements Comparable<BiomeInfo> {
 	@Nullable
 	public SoundEffect getSpotSound(@Nonnull final Random random) {
 		return this.spotSounds != NO_SOUNDS && random.nextInt(this.spotSoundChance) == 0
-				? new WeightTable<SoundEffect>(this.spotSounds).next() : null;
+				? getSpotSoundTable().next() : null;
+	}
+
+	@Nonnull
+	private ConditionalWeightTable<SoundEffect> getSpotSoundTable() {
+		if (this.spotSoundTable == null)
+			this.spotSoundTable = new ConditionalWeightTable<SoundEffect>(this.spotSounds);
+		return this.spotSoundTable;
 	}
 
 	void resetSounds() {
 		this.sounds = NO_SOUNDS;
 		this.spotSounds = NO_SOUNDS;
+		this.spotSoundTable = null;
 		this.spotSoundChance = DEFAULT_SPOT_CHANCE;
 	}
 
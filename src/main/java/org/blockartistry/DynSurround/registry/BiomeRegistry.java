@@ -75,6 +75,8 @@ public final class BiomeRegistry extends Registry {
 
 	private final Map<String, String> biomeAliases = new HashMap<String, String>();
 
+	private BiomeSoundTable soundTable;
+
 	BiomeRegistry(@Nonnull final Side side) {
 		super(side);
 	}
@@ -126,6 +128,8 @@ public final class BiomeRegistry extends Registry {
 
 	@Override
 	public void initComplete() {
+		this.soundTable = new BiomeSoundTable(this.registry.values());
+
 		if (ModOptions.enableDebugLogging) {
 			DSurround.log().info("*** BIOME REGISTRY ***");
 			final List<BiomeInfo> info = new ArrayList<BiomeInfo>(this.registry.values());
@@ -165,6 +169,11 @@ public final class BiomeRegistry extends Registry {
 		return result;
 	}
 
+	@Nonnull
+	public BiomeSoundTable getSoundTable() {
+		return this.soundTable;
+	}
+
 	@Nonnull
 	public BiomeInfo get(@Nonnull final Biome biome) {
 		// This shouldn't happen, but...
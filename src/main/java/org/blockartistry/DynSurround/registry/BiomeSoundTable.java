@@ -0,0 +1,127 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.DynSurround.registry;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import org.blockartistry.DynSurround.client.sound.SoundEffect;
+
+import gnu.trove.map.hash.TObjectIntHashMap;
+
+/**
+ * Flat table of every distinct looping sound configured across the biomes.
+ * Each BiomeInfo gets a bit mask over the table identifying its sounds, and
+ * the conditions of the sounds are reduced to the distinct set of condition
+ * strings so that a condition shared by many sounds is only evaluated once
+ * per scan.
+ */
+public final class BiomeSoundTable {
+
+	private final SoundEffect[] sounds;
+	private final String[] conditions;
+	private final int[] conditionIndex;
+
+	private final BitSet evaluated;
+	private final BitSet met;
+
+	BiomeSoundTable(@Nonnull final Collection<BiomeInfo> biomes) {
+		final Map<SoundEffect, Integer> soundIndex = new IdentityHashMap<SoundEffect, Integer>();
+		final TObjectIntHashMap<String> condIndex = new TObjectIntHashMap<String>(16, 0.5F, -1);
+
+		for (final BiomeInfo info : biomes) {
+			final SoundEffect[] biomeSounds = info.getSounds();
+			final BitSet mask = new BitSet();
+			for (final SoundEffect sound : biomeSounds) {
+				Integer idx = soundIndex.get(sound);
+				if (idx == null) {
+					idx = soundIndex.size();
+					soundIndex.put(sound, idx);
+					if (condIndex.get(sound.getConditions()) == -1)
+						condIndex.put(sound.getConditions(), condIndex.size());
+				}
+				mask.set(idx.intValue());
+			}
+			info.setSoundMask(mask);
+		}
+
+		this.sounds = new SoundEffect[soundIndex.size()];
+		this.conditionIndex = new int[soundIndex.size()];
+		for (final Map.Entry<SoundEffect, Integer> e : soundIndex.entrySet()) {
+			final int idx = e.getValue().intValue();
+			this.sounds[idx] = e.getKey();
+			this.conditionIndex[idx] = condIndex.get(e.getKey().getConditions());
+		}
+
+		this.conditions = new String[condIndex.size()];
+		for (final String cond : condIndex.keySet())
+			this.conditions[condIndex.get(cond)] = cond;
+
+		this.evaluated = new BitSet(this.conditions.length);
+		this.met = new BitSet(this.conditions.length);
+	}
+
+	public int size() {
+		return this.sounds.length;
+	}
+
+	@Nonnull
+	public SoundEffect get(final int idx) {
+		return this.sounds[idx];
+	}
+
+	/**
+	 * Forgets the condition results of the prior scan. Conditions are
+	 * evaluated lazily the first time a sound referencing them is checked.
+	 */
+	public void beginScan() {
+		this.evaluated.clear();
+		this.met.clear();
+	}
+
+	public boolean matches(final int idx) {
+		final int cond = this.conditionIndex[idx];
+		if (!this.evaluated.get(cond)) {
+			this.evaluated.set(cond);
+			if (Evaluator.check(this.conditions[cond]))
+				this.met.set(cond);
+		}
+		return this.met.get(cond);
+	}
+
+	/**
+	 * Adds the sounds from the mask whose conditions are met to the result.
+	 */
+	public void matches(@Nonnull final BitSet mask, @Nonnull final BitSet result) {
+		for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1))
+			if (matches(i))
+				result.set(i);
+	}
+
+}
@@ -31,8 +31,8 @@ import javax.annotation.Nullable;
 
 import org.blockartistry.DynSurround.client.fx.BlockEffect;
 import org.blockartistry.DynSurround.client.sound.SoundEffect;
+import org.blockartistry.lib.ConditionalWeightTable;
 import org.blockartistry.lib.MyUtils;
-import org.blockartistry.lib.WeightTable;
 
 public class BlockProfile {
 
@@ -48,6 +48,8 @@ public class BlockProfile {
 	protected int stepChance = 100;
 	protected SoundEffect[] sounds = NO_SOUNDS;
 	protected SoundEffect[] stepSounds = NO_SOUNDS;
+	protected ConditionalWeightTable<SoundEffect> soundTable;
+	protected ConditionalWeightTable<SoundEffect> stepSoundTable;
 	protected BlockEffect[] effects = NO_EFFECTS;
 	protected BlockEffect[] alwaysOn = NO_EFFECTS;
 
@@ -75,11 +77,13 @@ public class BlockProfile {
 
 	public BlockProfile addSound(@Nonnull final SoundEffect sound) {
 		this.sounds = MyUtils.append(this.sounds, sound);
+		this.soundTable = null;
 		return this;
 	}
 
 	public BlockProfile clearSounds() {
 		this.sounds = NO_SOUNDS;
+		this.soundTable = null;
 		return this;
 	}
 
@@ -90,11 +94,13 @@ public class BlockProfile {
 
 	public BlockProfile addStepSound(@Nonnull final SoundEffect sound) {
 		this.stepSounds = MyUtils.append(this.stepSounds, sound);
+		this.stepSoundTable = null;
 		return this;
 	}
 
 	public BlockProfile clearStepSounds() {
 		this.stepSounds = NO_SOUNDS;
+		this.stepSoundTable = null;
 		return this;
 	}
 
@@ -130,13 +136,27 @@ public class BlockProfile {
 	@Nullable
 	public SoundEffect getSoundToPlay(@Nonnull final Random random) {
 		return this.sounds != NO_SOUNDS && random.nextInt(getChance()) == 0
-				? new WeightTable<SoundEffect>(this.sounds).next() : null;
+				? getSoundTable().next() : null;
 	}
 
 	@Nullable
 	public SoundEffect getStepSoundToPlay(@Nonnull final Random random) {
 		return this.stepSounds != NO_SOUNDS && random.nextInt(getStepChance()) == 0
-				? new WeightTable<SoundEffect>(this.stepSounds).next() : null;
+				? getStepSoundTable().next() : null;
+	}
+
+	@Nonnull
+	private ConditionalWeightTable<SoundEffect> getSoundTable() {
+		if (this.soundTable == null)
+			this.soundTable = new ConditionalWeightTable<SoundEffect>(this.sounds);
+		return this.soundTable;
+	}
+
+	@Nonnull
+	private ConditionalWeightTable<SoundEffect> getStepSoundTable() {
+		if (this.stepSoundTable == null)
+			this.stepSoundTable = new ConditionalWeightTable<SoundEffect>(this.stepSounds);
+		return this.stepSoundTable;
 	}
 
 	public boolean hasSoundsOrEffects() {
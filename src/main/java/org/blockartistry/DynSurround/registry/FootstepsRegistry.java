@@ -24,17 +24,27 @@
 
 package org.blockartistry.DynSurround.registry;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.IOUtils;
 
 import org.blockartistry.DynSurround.DSurround;
 import org.blockartistry.DynSurround.ModOptions;
+import org.blockartistry.DynSurround.client.footsteps.implem.AcousticsCache;
 import org.blockartistry.DynSurround.client.footsteps.implem.AcousticsManager;
 import org.blockartistry.DynSurround.client.footsteps.implem.BlockMap;
 import org.blockartistry.DynSurround.client.footsteps.implem.Manifest;
@@ -50,6 +60,9 @@ import org.blockartistry.DynSurround.util.BlockState;
 import org.blockartistry.DynSurround.util.BlockState.Consumer;
 import org.blockartistry.lib.JsonUtils;
 import org.blockartistry.lib.MCHelper;
+
+import com.google.common.base.Charsets;
+
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockCrops;
 import net.minecraft.block.BlockDoor;
@@ -70,12 +83,15 @@ import net.minecraft.item.Item;
 import net.minecraft.item.ItemBlock;
 import net.minecraft.item.ItemBlockSpecial;
 import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.oredict.OreDictionary;
 
 public class FootstepsRegistry extends Registry {
 
+	private static final String CACHE_FILE = "acoustics.bin";
+
 	// System
 	private ResourcePacks dealer = new ResourcePacks();
 	private final Isolator isolator;
@@ -94,8 +110,7 @@ public class FootstepsRegistry extends Registry {
 		final List<IResourcePack> repo = this.dealer.findResourcePacks();
 
 		reloadManifests(repo);
-		reloadAcoustics(repo);
-		reloadPrimitiveMap(repo);
+		reloadAcousticData(repo);
 
 		seedMap();
 
@@ -107,6 +122,7 @@ public class FootstepsRegistry extends Registry {
 	@Override
 	public void initComplete() {
 		this.getBlockMap().freeze();
+		this.getBlockMap().compile();
 		AcousticsManager.SWIM = this.isolator.getAcoustics().compileAcoustics("_SWIM");
 
 		// Traverse the IBlockState entries looking for states that do not
@@ -165,61 +181,102 @@ public class FootstepsRegistry extends Registry {
 		}
 	}
 
-	private void reloadPrimitiveMap(@Nonnull final List<IResourcePack> repo) {
-		final PrimitiveMap primitiveMap = new PrimitiveMap(this.isolator);
+	@Nullable
+	private static byte[] readFully(@Nullable final InputStream stream) throws IOException {
+		if (stream == null)
+			return null;
+		try {
+			return IOUtils.toByteArray(stream);
+		} finally {
+			stream.close();
+		}
+	}
+
+	/*
+	 * The raw acoustic and primitive map data is read from each pack and
+	 * hashed. If the binary cache was built from the same data it is loaded
+	 * directly, otherwise the JSON is parsed and a new cache written.
+	 */
+	private void reloadAcousticData(@Nonnull final List<IResourcePack> repo) {
+		final List<byte[]> acousticData = new ArrayList<byte[]>();
+		final List<byte[]> primitiveData = new ArrayList<byte[]>();
+		final List<String> packNames = new ArrayList<String>();
+
+		MessageDigest digest = null;
+		try {
+			digest = MessageDigest.getInstance("MD5");
+			digest.update(DSurround.VERSION.getBytes(Charsets.UTF_8));
+		} catch (final NoSuchAlgorithmException e) {
+			;
+		}
 
 		for (final IResourcePack pack : repo) {
-			InputStream stream = null;
+			byte[] acoustics = null;
+			byte[] primitives = null;
 			try {
-				stream = this.dealer.openPrimitiveMap(pack);
-				if (stream != null)
-					primitiveMap.setup(ConfigProperty.fromStream(stream));
+				acoustics = readFully(this.dealer.openAcoustics(pack));
+			} catch (final IOException e) {
+				DSurround.log().debug("Unable to load acoustic data from pack %s", pack.getPackName());
+			}
+			try {
+				primitives = readFully(this.dealer.openPrimitiveMap(pack));
 			} catch (final IOException e) {
 				DSurround.log().debug("Unable to load primitive map data from pack %s", pack.getPackName());
-			} finally {
-				if (stream != null)
-					try {
-						stream.close();
-					} catch (final IOException e) {
-						;
-					}
 			}
-		}
 
-		this.isolator.setPrimitiveMap(primitiveMap);
-	}
+			if (acoustics == null && primitives == null)
+				continue;
 
-	private void reloadAcoustics(@Nonnull final List<IResourcePack> repo) {
-		AcousticsManager acoustics = new AcousticsManager(this.isolator);
-		Scanner scanner = null;
-		InputStream stream = null;
+			packNames.add(pack.getPackName());
+			acousticData.add(acoustics);
+			primitiveData.add(primitives);
 
-		for (final IResourcePack pack : repo) {
-			try {
-				stream = this.dealer.openAcoustics(pack);
-				if (stream != null) {
-					scanner = new Scanner(stream);
-					final String jasonString = scanner.useDelimiter("\\Z").next();
-
-					new AcousticsJsonReader("").parseJSON(jasonString, acoustics);
-				}
-			} catch (final IOException e) {
-				DSurround.log().debug("Unable to load acoustic data from pack %s", pack.getPackName());
-			} finally {
-				try {
-					if (scanner != null)
-						scanner.close();
-					if (stream != null)
-						stream.close();
-				} catch (final IOException e) {
-					;
-				}
+			if (digest != null) {
+				digest.update(pack.getPackName().getBytes(Charsets.UTF_8));
+				if (acoustics != null)
+					digest.update(acoustics);
+				digest.update((byte) 0);
+				if (primitives != null)
+					digest.update(primitives);
+				digest.update((byte) 0);
 			}
 		}
 
+		final AcousticsManager acoustics = new AcousticsManager(this.isolator);
 		this.isolator.setAcoustics(acoustics);
 		this.isolator.setSoundPlayer(acoustics);
 		this.isolator.setDefaultStepPlayer(acoustics);
+
+		final Map<String, String> primitives = new LinkedHashMap<String, String>();
+		final File dataDirectory = DSurround.dataDirectory();
+		final AcousticsCache cache = digest != null && dataDirectory != null
+				? new AcousticsCache(new File(dataDirectory, CACHE_FILE)) : null;
+		final String hash = digest != null ? Hex.encodeHexString(digest.digest()) : null;
+
+		if (cache != null && cache.load(hash, acoustics, primitives)) {
+			DSurround.log().debug("Acoustic data loaded from cache");
+		} else {
+			for (int i = 0; i < packNames.size(); i++) {
+				final byte[] data = acousticData.get(i);
+				if (data != null)
+					new AcousticsJsonReader("").parseJSON(new String(data, Charsets.UTF_8), acoustics);
+			}
+
+			for (int i = 0; i < packNames.size(); i++) {
+				final byte[] data = primitiveData.get(i);
+				if (data != null) {
+					final ConfigProperty props = ConfigProperty.fromStream(new ByteArrayInputStream(data));
+					primitives.putAll(props.getAllProperties());
+				}
+			}
+
+			if (cache != null)
+				cache.save(hash, acoustics, primitives);
+		}
+
+		final PrimitiveMap primitiveMap = new PrimitiveMap(this.isolator);
+		primitiveMap.setup(primitives);
+		this.isolator.setPrimitiveMap(primitiveMap);
 	}
 
 	private void seedMap() {
@@ -269,6 +326,12 @@ public class FootstepsRegistry extends Registry {
 			player.nextStepDistance = 0;
 	}
 
+	public void invalidate(@Nonnull final BlockPos pos) {
+		final Solver solver = this.isolator.getSolver();
+		if (solver != null)
+			solver.invalidate(pos);
+	}
+
 	@Nonnull
 	public BlockMap getBlockMap() {
 		return this.isolator.getBlockMap();
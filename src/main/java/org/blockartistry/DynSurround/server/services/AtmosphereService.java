@@ -24,21 +24,27 @@
 
 package org.blockartistry.DynSurround.server.services;
 
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.world.World;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 import net.minecraftforge.fml.relauncher.Side;
 
 import javax.annotation.Nonnull;
 
+import org.blockartistry.DynSurround.DSurround;
 import org.blockartistry.DynSurround.ModEnvironment;
 import org.blockartistry.DynSurround.ModOptions;
+import org.blockartistry.DynSurround.network.Network;
 import org.blockartistry.DynSurround.registry.DimensionRegistry;
 import org.blockartistry.DynSurround.registry.RegistryManager;
 import org.blockartistry.DynSurround.registry.RegistryManager.RegistryType;
+import org.blockartistry.lib.collections.TimerWheel;
 import gnu.trove.map.hash.TIntObjectHashMap;
 
 public final class AtmosphereService extends Service {
@@ -49,10 +55,107 @@ public final class AtmosphereService extends Service {
 		super("AtmosphereService");
 	}
 
+	@Override
+	public void fini() {
+		this.parked.clear();
+	}
+
+	// Longest a generator stays parked before it is looked at again
+	private static final int MAX_PARK = 20 * 60;
+
+	/*
+	 * Generators for dimensions without players are parked once their weather
+	 * settles, and sit in the wheel until one of their timers is about to run
+	 * out. Wake ups are naturally spread out since each dimension has its own
+	 * timers. Dimensions with players are updated every tick since the rain
+	 * and thunder transitions are tick exact.
+	 */
+	private final TimerWheel<WeatherGenerator> parked = new TimerWheel<WeatherGenerator>(2048, 1L);
+	private final TimerWheel.Handler<WeatherGenerator> wakeHandler = new TimerWheel.Handler<WeatherGenerator>() {
+		@Override
+		public void onExpire(@Nonnull final WeatherGenerator generator) {
+			// Generators can be woken early and parked again so ignore
+			// stale entries
+			if (generator.isParked() && generator.getWakeTick() <= AtmosphereService.this.tick)
+				generator.wake(AtmosphereService.this.tick);
+		}
+	};
+	private long tick = 0;
+
+	@SubscribeEvent(priority = EventPriority.HIGH)
+	public void wakeGenerators(@Nonnull final TickEvent.ServerTickEvent event) {
+		if (event.phase == Phase.START) {
+			this.tick++;
+			this.parked.advance(this.tick, this.wakeHandler);
+		}
+	}
+
 	@SubscribeEvent(priority = EventPriority.HIGH)
 	public void tickEvent(@Nonnull final TickEvent.WorldTickEvent event) {
-		if (event.side == Side.SERVER && event.phase == Phase.END)
-			getGenerator(event.world).update();
+		if (event.side != Side.SERVER || event.phase != Phase.END)
+			return;
+
+		final WeatherGenerator generator = getGenerator(event.world);
+		if (generator.isParked()) {
+			if (event.world.playerEntities.isEmpty())
+				return;
+			generator.wake(this.tick);
+		}
+
+		generator.update();
+
+		final long wakeTick = generator.park(this.tick, MAX_PARK);
+		if (wakeTick > 0)
+			this.parked.schedule(generator, wakeTick);
+	}
+
+	// Report interval for the weather sync stats
+	private static final int STATS_INTERVAL = 20 * 60;
+	private int statsTicks = 0;
+	private long lastPacketsSent = 0;
+	private long lastPacketsPossible = 0;
+
+	@SubscribeEvent
+	public void serverTick(@Nonnull final TickEvent.ServerTickEvent event) {
+		if (event.phase != Phase.END || ++this.statsTicks < STATS_INTERVAL)
+			return;
+
+		final long sent = WeatherGenerator.packetsSent - this.lastPacketsSent;
+		final long saved = WeatherGenerator.packetsPossible - this.lastPacketsPossible - sent;
+		DSurround.log().debug(ModOptions.Trace.NETWORK_STATS,
+				"Weather sync: %d packets sent, %d suppressed (%.1f packets/sec saved)", sent, saved,
+				saved * 20.0F / this.statsTicks);
+
+		this.statsTicks = 0;
+		this.lastPacketsSent = WeatherGenerator.packetsSent;
+		this.lastPacketsPossible = WeatherGenerator.packetsPossible;
+	}
+
+	/*
+	 * Weather updates are only broadcast when something changes so players
+	 * entering a dimension need the full picture.
+	 */
+	private void sendSnapshot(@Nonnull final EntityPlayer player) {
+		if (player instanceof EntityPlayerMP && !player.world.isRemote) {
+			final WeatherGenerator generator = getGenerator(player.world);
+			generator.catchUp(this.tick);
+			Network.sendToPlayer((EntityPlayerMP) player, generator.createSnapshot());
+		}
+	}
+
+	@SubscribeEvent
+	public void onPlayerLoggedIn(@Nonnull final PlayerEvent.PlayerLoggedInEvent event) {
+		sendSnapshot(event.player);
+	}
+
+	@SubscribeEvent
+	public void onPlayerChangedDimension(@Nonnull final PlayerEvent.PlayerChangedDimensionEvent event) {
+		sendSnapshot(event.player);
+	}
+
+	@SubscribeEvent
+	public void onPlayerRespawn(@Nonnull final PlayerEvent.PlayerRespawnEvent event) {
+		sendSnapshot(event.player);
 	}
 
 	@SubscribeEvent(priority = EventPriority.LOWEST)
@@ -70,8 +173,25 @@ public final class AtmosphereService extends Service {
 		if (world.isRemote)
 			return;
 
+		// A parked generator left in the wheel is ignored when it comes up
 		final int dimId = world.provider.getDimension();
-		this.generators.remove(dimId);
+		final WeatherGenerator generator = this.generators.remove(dimId);
+		if (generator != null)
+			generator.wake(this.tick);
+	}
+
+	@SubscribeEvent
+	public void onWorldSave(final WorldEvent.Save e) {
+		final World world = e.getWorld();
+		if (world.isRemote)
+			return;
+
+		// Fires after the world's saved data has been written, so weather
+		// state that has not been flagged yet is written out here. Covers
+		// server stop and dimension unload as both save first.
+		final WeatherGenerator generator = this.generators.get(world.provider.getDimension());
+		if (generator != null && generator.flush())
+			world.getPerWorldStorage().saveAllData();
 	}
 
 	private final TIntObjectHashMap<WeatherGenerator> generators = new TIntObjectHashMap<WeatherGenerator>();
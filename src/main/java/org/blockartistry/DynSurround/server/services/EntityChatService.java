@@ -0,0 +1,175 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.DynSurround.server.services;
+
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import javax.annotation.Nonnull;
+
+import org.blockartistry.DynSurround.ModOptions;
+import org.blockartistry.DynSurround.entity.EntityChat;
+import org.blockartistry.DynSurround.entity.VillagerFleeChat;
+import org.blockartistry.DynSurround.network.Network;
+import org.blockartistry.DynSurround.network.PacketSpeechBubble;
+
+import gnu.trove.map.hash.TIntObjectHashMap;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.entity.passive.EntityVillager;
+import net.minecraft.world.World;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.relauncher.Side;
+
+/**
+ * Schedules entity chat for the server. Each dimension keeps a queue of chat
+ * state ordered by the next time an entity wants to chat, so a world tick only
+ * touches the entities whose time has come. Entities that have left the world
+ * are dropped when they come up, and entities without a player in speech
+ * bubble range are rescheduled without doing any work. The bubbles produced
+ * during a tick are sent to each player as a single packet.
+ */
+public final class EntityChatService extends Service {
+
+	private static final Comparator<EntityChat> ORDER = new Comparator<EntityChat>() {
+		@Override
+		public int compare(@Nonnull final EntityChat o1, @Nonnull final EntityChat o2) {
+			return Long.compare(o1.getNextChat(), o2.getNextChat());
+		}
+	};
+
+	private final TIntObjectHashMap<PriorityQueue<EntityChat>> queues = new TIntObjectHashMap<PriorityQueue<EntityChat>>();
+	private final Map<EntityPlayerMP, PacketSpeechBubble> packets = new IdentityHashMap<EntityPlayerMP, PacketSpeechBubble>();
+
+	EntityChatService() {
+		super("EntityChatService");
+	}
+
+	@Override
+	public void fini() {
+		this.queues.clear();
+		this.packets.clear();
+	}
+
+	@Nonnull
+	private PriorityQueue<EntityChat> getQueue(@Nonnull final World world) {
+		final int dimId = world.provider.getDimension();
+		PriorityQueue<EntityChat> queue = this.queues.get(dimId);
+		if (queue == null)
+			this.queues.put(dimId, queue = new PriorityQueue<EntityChat>(64, ORDER));
+		return queue;
+	}
+
+	@SubscribeEvent(priority = EventPriority.LOWEST, receiveCanceled = false)
+	public void onJoinWorld(@Nonnull final EntityJoinWorldEvent event) {
+		if (!ModOptions.enableEntityChat || event.getWorld().isRemote
+				|| !(event.getEntity() instanceof EntityLiving))
+			return;
+
+		final EntityLiving entity = (EntityLiving) event.getEntity();
+		final PriorityQueue<EntityChat> queue = getQueue(event.getWorld());
+
+		EntityChat regular = null;
+		if (EntityChat.hasMessages(entity))
+			queue.add(regular = new EntityChat(entity));
+		if (entity instanceof EntityVillager)
+			queue.add(new VillagerFleeChat(entity, regular));
+	}
+
+	@SubscribeEvent
+	public void tickEvent(@Nonnull final TickEvent.WorldTickEvent event) {
+		if (event.side != Side.SERVER || event.phase != Phase.END)
+			return;
+
+		final World world = event.world;
+		final PriorityQueue<EntityChat> queue = this.queues.get(world.provider.getDimension());
+		if (queue == null || queue.isEmpty())
+			return;
+
+		final long now = world.getTotalWorldTime();
+		final double range = ModOptions.speechBubbleRange;
+
+		EntityChat chat;
+		while ((chat = queue.peek()) != null && chat.getNextChat() <= now) {
+			queue.poll();
+
+			// Entities that died or were unloaded with their chunk are no
+			// longer tracked by the world. If the chunk comes back a new
+			// entity instance joins and gets scheduled.
+			final EntityLiving entity = chat.getEntity();
+			if (entity.isDead || world.getEntityByID(entity.getEntityId()) != entity)
+				continue;
+
+			if (now - chat.getNextChat() >= EntityChat.RESCHEDULE_THRESHOLD
+					|| !world.isAnyPlayerWithinRangeAt(entity.posX, entity.posY, entity.posZ, range)) {
+				chat.skip(now);
+			} else {
+				final String message = chat.chat(now);
+				if (message != null)
+					queueBubble(world.playerEntities, entity, message, range);
+			}
+
+			queue.add(chat);
+		}
+
+		if (!this.packets.isEmpty()) {
+			for (final Map.Entry<EntityPlayerMP, PacketSpeechBubble> e : this.packets.entrySet())
+				Network.sendToPlayer(e.getKey(), e.getValue());
+			this.packets.clear();
+		}
+	}
+
+	private void queueBubble(@Nonnull final List<EntityPlayer> players, @Nonnull final EntityLiving entity,
+			@Nonnull final String message, final double range) {
+		final double rangeSq = range * range;
+		for (int i = 0; i < players.size(); i++) {
+			final EntityPlayer player = players.get(i);
+			if (player instanceof EntityPlayerMP
+					&& player.getDistanceSq(entity.posX, entity.posY, entity.posZ) < rangeSq) {
+				PacketSpeechBubble packet = this.packets.get(player);
+				if (packet == null)
+					this.packets.put((EntityPlayerMP) player, packet = new PacketSpeechBubble());
+				packet.add(entity, message, true);
+			}
+		}
+	}
+
+	@SubscribeEvent(priority = EventPriority.LOWEST)
+	public void onWorldUnload(@Nonnull final WorldEvent.Unload e) {
+		final World world = e.getWorld();
+		if (!world.isRemote)
+			this.queues.remove(world.provider.getDimension());
+	}
+
+}
@@ -24,31 +24,101 @@
 
 package org.blockartistry.DynSurround.server.services;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import javax.annotation.Nonnull;
 
-import org.blockartistry.DynSurround.ModOptions;
-import org.blockartistry.DynSurround.entity.ai.EntityAIChat;
+import org.blockartistry.DynSurround.api.entity.IEmojiData;
 import org.blockartistry.DynSurround.entity.ai.EntityAIEmoji;
 import org.blockartistry.DynSurround.entity.ai.EntityAIVillagerEmoji;
-import org.blockartistry.DynSurround.entity.ai.EntityAIVillagerFleeChat;
+import org.blockartistry.DynSurround.network.Network;
+import org.blockartistry.DynSurround.network.PacketEntityEmote;
 
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLiving;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.entity.passive.EntityVillager;
+import net.minecraft.world.WorldServer;
 import net.minecraftforge.event.entity.EntityJoinWorldEvent;
 import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 
 public final class EntityEmojiService extends Service {
 
+	// Entities whose emoji state changed this tick. An entity that changes
+	// more than once is only queued once; its state is captured at flush.
+	private static final List<Entity> pendingEntities = new ArrayList<Entity>();
+	private static final List<IEmojiData> pendingData = new ArrayList<IEmojiData>();
+	private static final Set<Entity> queued = Collections.newSetFromMap(new IdentityHashMap<Entity, Boolean>());
+
+	private final Map<EntityPlayerMP, PacketEntityEmote> packets = new IdentityHashMap<EntityPlayerMP, PacketEntityEmote>();
+
 	EntityEmojiService() {
 		super("EntityEmojiService");
 	}
 
-	protected void addChatAI(@Nonnull final EntityLiving entity) {
-		if (EntityAIChat.hasMessages(entity))
-			entity.tasks.addTask(EntityAIChat.PRIORITY, new EntityAIChat(entity));
-		if (entity instanceof EntityVillager)
-			entity.tasks.addTask(EntityAIVillagerFleeChat.PRIORITY, new EntityAIVillagerFleeChat(entity));
+	/*
+	 * Queues the emoji state of an entity to be sent to the players tracking it
+	 * at the end of the server tick.
+	 */
+	public static void queueSync(@Nonnull final Entity entity, @Nonnull final IEmojiData data) {
+		if (queued.add(entity)) {
+			pendingEntities.add(entity);
+			pendingData.add(data);
+		}
+	}
+
+	@Override
+	public void fini() {
+		pendingEntities.clear();
+		pendingData.clear();
+		queued.clear();
+	}
+
+	/*
+	 * Batches the changes made during the tick so each viewing player gets a
+	 * single packet.
+	 */
+	@SubscribeEvent
+	public void serverTick(@Nonnull final TickEvent.ServerTickEvent event) {
+		if (event.phase != Phase.END || pendingEntities.isEmpty())
+			return;
+
+		for (int i = 0; i < pendingEntities.size(); i++) {
+			final Entity entity = pendingEntities.get(i);
+			if (entity.isDead || !(entity.getEntityWorld() instanceof WorldServer))
+				continue;
+
+			final Set<? extends EntityPlayer> players = ((WorldServer) entity.getEntityWorld()).getEntityTracker()
+					.getTrackingPlayers(entity);
+			if (players.isEmpty())
+				continue;
+
+			final int state = PacketEntityEmote.pack(pendingData.get(i));
+			for (final EntityPlayer player : players) {
+				final EntityPlayerMP p = (EntityPlayerMP) player;
+				PacketEntityEmote packet = this.packets.get(p);
+				if (packet == null)
+					this.packets.put(p, packet = new PacketEntityEmote());
+				packet.add(entity.getEntityId(), state);
+			}
+		}
+
+		for (final Map.Entry<EntityPlayerMP, PacketEntityEmote> e : this.packets.entrySet())
+			Network.sendToPlayer(e.getKey(), e.getValue());
+
+		this.packets.clear();
+		pendingEntities.clear();
+		pendingData.clear();
+		queued.clear();
 	}
 
 	protected void addEmojiAI(@Nonnull final EntityLiving entity) {
@@ -61,10 +131,7 @@ public final class EntityEmojiService extends Service {
 	@SubscribeEvent(priority = EventPriority.LOWEST, receiveCanceled = false)
 	public void onJoinWorld(@Nonnull final EntityJoinWorldEvent event) {
 		if (event.getEntity() instanceof EntityLiving) {
-			final EntityLiving entity = (EntityLiving) event.getEntity();
-			if (ModOptions.enableEntityChat)
-				addChatAI(entity);
-			addEmojiAI(entity);
+			addEmojiAI((EntityLiving) event.getEntity());
 		}
 	}
 
@@ -24,50 +24,106 @@
 
 package org.blockartistry.DynSurround.server.services;
 
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
 
 import javax.annotation.Nonnull;
 
 import org.blockartistry.DynSurround.network.Network;
 import org.blockartistry.DynSurround.network.PacketEnvironment;
+import gnu.trove.map.hash.TIntObjectHashMap;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
-import net.minecraft.util.math.BlockPos;
-import net.minecraft.village.Village;
 import net.minecraft.village.VillageCollection;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 import net.minecraftforge.fml.relauncher.Side;
 
 public final class EnvironmentService extends Service {
 
+	// Players are evaluated every EVAL_INTERVAL ticks, spread out by entity ID
+	private static final int EVAL_INTERVAL = 10;
+
+	private final TIntObjectHashMap<VillageIndex> indexes = new TIntObjectHashMap<VillageIndex>();
+	private final Map<UUID, Boolean> lastSent = new HashMap<UUID, Boolean>();
+
 	EnvironmentService() {
 		super("EnvironmentService");
 	}
 
+	@Override
+	public void fini() {
+		this.indexes.clear();
+		this.lastSent.clear();
+	}
+
 	@SubscribeEvent
 	public void tickEvent(@Nonnull final TickEvent.PlayerTickEvent event) {
 		if (event.phase == Phase.END && event.side == Side.SERVER) {
 			final EntityPlayer player = event.player;
-			final VillageCollection villageCollection = player.getEntityWorld().getVillageCollection();
-			boolean inVillage = false;
-
-			if (villageCollection != null) {
-				final List<Village> villages = villageCollection.getVillageList();
-				if (villages != null && villages.size() > 0) {
-					final BlockPos pos = player.getPosition();
-					for (final Village v : villages)
-						if (v.isBlockPosWithinSqVillageRadius(pos)) {
-							inVillage = true;
-							break;
-						}
-				}
-			}
+			final World world = player.getEntityWorld();
+			final Boolean previous = this.lastSent.get(player.getUniqueID());
+
+			// Players with no state yet are evaluated right away
+			if (previous != null && (world.getTotalWorldTime() + player.getEntityId()) % EVAL_INTERVAL != 0)
+				return;
 
-			final PacketEnvironment packet = new PacketEnvironment(inVillage);
-			Network.sendToPlayer((EntityPlayerMP) player, packet);
+			final boolean inVillage = isInVillage(world, player);
+			if (previous == null || previous.booleanValue() != inVillage) {
+				this.lastSent.put(player.getUniqueID(), inVillage);
+				Network.sendToPlayer((EntityPlayerMP) player, new PacketEnvironment(inVillage));
+			}
 		}
 	}
 
+	private boolean isInVillage(@Nonnull final World world, @Nonnull final EntityPlayer player) {
+		final VillageCollection villageCollection = world.getVillageCollection();
+		if (villageCollection == null)
+			return false;
+
+		final int dimId = world.provider.getDimension();
+		VillageIndex index = this.indexes.get(dimId);
+		if (index == null)
+			this.indexes.put(dimId, index = new VillageIndex());
+		index.update(villageCollection, world.getTotalWorldTime());
+		return index.isInVillage(player.getPosition());
+	}
+
+	/*
+	 * The client resets its state when it changes worlds so force the next
+	 * evaluation to send.
+	 */
+	@SubscribeEvent
+	public void onPlayerLoggedIn(@Nonnull final PlayerEvent.PlayerLoggedInEvent event) {
+		this.lastSent.remove(event.player.getUniqueID());
+	}
+
+	@SubscribeEvent
+	public void onPlayerLoggedOut(@Nonnull final PlayerEvent.PlayerLoggedOutEvent event) {
+		this.lastSent.remove(event.player.getUniqueID());
+	}
+
+	@SubscribeEvent
+	public void onPlayerChangedDimension(@Nonnull final PlayerEvent.PlayerChangedDimensionEvent event) {
+		this.lastSent.remove(event.player.getUniqueID());
+	}
+
+	@SubscribeEvent
+	public void onPlayerRespawn(@Nonnull final PlayerEvent.PlayerRespawnEvent event) {
+		this.lastSent.remove(event.player.getUniqueID());
+	}
+
+	@SubscribeEvent(priority = EventPriority.LOWEST)
+	public void onWorldUnload(@Nonnull final WorldEvent.Unload e) {
+		final World world = e.getWorld();
+		if (!world.isRemote)
+			this.indexes.remove(world.provider.getDimension());
+	}
+
 }
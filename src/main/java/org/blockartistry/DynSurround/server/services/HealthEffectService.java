@@ -24,16 +24,22 @@
 
 package org.blockartistry.DynSurround.server.services;
 
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 import javax.annotation.Nonnull;
 
 import org.blockartistry.DynSurround.ModOptions;
-import org.blockartistry.DynSurround.network.Locus;
 import org.blockartistry.DynSurround.network.Network;
 import org.blockartistry.DynSurround.network.PacketHealthChange;
 
+import gnu.trove.iterator.TIntObjectIterator;
+import gnu.trove.map.hash.TIntObjectHashMap;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.entity.projectile.EntityArrow;
 import net.minecraft.init.MobEffects;
 import net.minecraft.util.EntityDamageSource;
@@ -42,15 +48,60 @@ import net.minecraftforge.event.entity.living.LivingHealEvent;
 import net.minecraftforge.event.entity.living.LivingHurtEvent;
 import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 
 public final class HealthEffectService extends Service {
 
 	public static final double RANGE = 32;
 
+	/*
+	 * Health changes of an entity over the current tick.
+	 */
+	private static final class HealthChange {
+		public final Entity entity;
+		public float x;
+		public float y;
+		public float z;
+		public boolean isCritical;
+		public boolean damaged;
+		public boolean healed;
+		public float damage;
+		public float heal;
+
+		public HealthChange(@Nonnull final Entity entity) {
+			this.entity = entity;
+		}
+
+		public void setPosition(@Nonnull final Entity entity) {
+			this.x = (float) entity.posX;
+			this.y = (float) entity.posY + (entity.height / 2.0F);
+			this.z = (float) entity.posZ;
+		}
+	}
+
+	private final TIntObjectHashMap<HealthChange> changes = new TIntObjectHashMap<HealthChange>();
+	private final Map<EntityPlayerMP, PacketHealthChange> packets = new IdentityHashMap<>();
+
 	protected HealthEffectService() {
 		super("HealthEffectService");
 	}
 
+	@Override
+	public void fini() {
+		this.changes.clear();
+		this.packets.clear();
+	}
+
+	@Nonnull
+	private HealthChange getChange(@Nonnull final Entity entity) {
+		HealthChange change = this.changes.get(entity.getEntityId());
+		if (change == null)
+			this.changes.put(entity.getEntityId(), change = new HealthChange(entity));
+		change.setPosition(entity);
+		return change;
+	}
+
 	// From the Minecraft code for damage
 	// EntityPlayer.attackTargetEntityWithCurrentItem()
 	private static boolean isCritical(@Nonnull final EntityPlayer player, @Nonnull final Entity target) {
@@ -88,11 +139,10 @@ public final class HealthEffectService extends Service {
 			}
 		}
 
-		final Entity entity = event.getEntityLiving();
-		final Locus point = new Locus(entity, RANGE);
-		final PacketHealthChange packet = new PacketHealthChange(entity.getEntityId(), (float) entity.posX,
-				(float) entity.posY + (entity.height / 2.0F), (float) entity.posZ, isCrit, (int) event.getAmount());
-		Network.sendToAllAround(point, packet);
+		final HealthChange change = getChange(event.getEntityLiving());
+		change.isCritical |= isCrit;
+		change.damaged = true;
+		change.damage += event.getAmount();
 	}
 
 	@SubscribeEvent(priority = EventPriority.LOW)
@@ -109,11 +159,45 @@ public final class HealthEffectService extends Service {
 				|| event.getEntityLiving().getHealth() == event.getEntityLiving().getMaxHealth())
 			return;
 
-		final Entity entity = event.getEntityLiving();
-		final Locus point = new Locus(entity, RANGE);
-		final PacketHealthChange packet = new PacketHealthChange(entity.getEntityId(), (float) entity.posX,
-				(float) entity.posY + (entity.height / 2.0F), (float) entity.posZ, false, -(int) event.getAmount());
-		Network.sendToAllAround(point, packet);
+		final HealthChange change = getChange(event.getEntityLiving());
+		change.healed = true;
+		change.heal += event.getAmount();
+	}
+
+	/*
+	 * Sends the health changes made during the tick. Each player within range
+	 * of one or more of the entities gets a single packet.
+	 */
+	@SubscribeEvent
+	public void serverTick(@Nonnull final TickEvent.ServerTickEvent event) {
+		if (event.phase != Phase.END || this.changes.isEmpty())
+			return;
+
+		final double rangeSq = RANGE * RANGE;
+		final TIntObjectIterator<HealthChange> itr = this.changes.iterator();
+		while (itr.hasNext()) {
+			itr.advance();
+			final HealthChange change = itr.value();
+			final List<EntityPlayer> players = change.entity.world.playerEntities;
+			for (int i = 0; i < players.size(); i++) {
+				final EntityPlayer player = players.get(i);
+				if (!(player instanceof EntityPlayerMP)
+						|| player.getDistanceSq(change.x, change.y, change.z) >= rangeSq)
+					continue;
+
+				PacketHealthChange packet = this.packets.get(player);
+				if (packet == null)
+					this.packets.put((EntityPlayerMP) player, packet = new PacketHealthChange());
+				packet.add(itr.key(), change.x, change.y, change.z, change.isCritical, change.damaged,
+						(int) change.damage, change.healed, (int) change.heal);
+			}
+		}
+
+		for (final Map.Entry<EntityPlayerMP, PacketHealthChange> e : this.packets.entrySet())
+			Network.sendToPlayer(e.getKey(), e.getValue());
+
+		this.packets.clear();
+		this.changes.clear();
 	}
 
 }
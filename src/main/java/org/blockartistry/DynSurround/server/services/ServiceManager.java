@@ -25,7 +25,10 @@
 package org.blockartistry.DynSurround.server.services;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 import javax.annotation.Nonnull;
 
@@ -35,15 +38,22 @@ import org.blockartistry.DynSurround.network.PacketServerData;
 import org.blockartistry.DynSurround.registry.DimensionRegistry;
 import org.blockartistry.DynSurround.registry.RegistryManager;
 import org.blockartistry.DynSurround.registry.RegistryManager.RegistryType;
+import org.blockartistry.DynSurround.server.event.ServerDataSubscribeEvent;
+import org.blockartistry.lib.collections.SampleBuffer;
 
+import gnu.trove.iterator.TIntObjectIterator;
 import gnu.trove.map.hash.TIntDoubleHashMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.WorldServer;
 import net.minecraftforge.common.DimensionManager;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 
@@ -84,6 +94,7 @@ public final class ServiceManager extends Service {
 		INSTANCE.addService(INSTANCE);
 		INSTANCE.addService(new AtmosphereService());
 		INSTANCE.addService(new EntityEmojiService());
+		INSTANCE.addService(new EntityChatService());
 		INSTANCE.addService(new HealthEffectService());
 		INSTANCE.addService(new SpeechBubbleService());
 		INSTANCE.addService(new EnvironmentService());
@@ -93,6 +104,7 @@ public final class ServiceManager extends Service {
 	public static void deinitialize() {
 		INSTANCE.fini0();
 		INSTANCE.clearServices();
+		Network.clear();
 	}
 
 	@SubscribeEvent(priority = EventPriority.LOWEST)
@@ -102,43 +114,117 @@ public final class ServiceManager extends Service {
 		this.dimensions.loading(e.getWorld());
 	}
 
+	/**
+	 * Sends the network messages queued during the tick. Runs last so that
+	 * anything the other services send at the end of the tick goes out with
+	 * it.
+	 */
+	@SubscribeEvent(priority = EventPriority.LOWEST)
+	public void flushNetwork(@Nonnull final TickEvent.ServerTickEvent event) {
+		if (event.phase == Phase.END)
+			Network.flush();
+	}
+
+	// Ticks of history used for the server statistics. Matches the window
+	// Minecraft keeps for its own tick times.
+	private static final int STATS_SAMPLES = 100;
+
 	private static long tpsCount = 0;
 
-	private static long mean(@Nonnull final long[] values) {
-		long sum = 0L;
-		for (long v : values)
-			sum += v;
-		return sum / values.length;
+	private final Set<UUID> subscribers = new HashSet<UUID>();
+	private final SampleBuffer tickTimes = new SampleBuffer(STATS_SAMPLES);
+	private final TIntObjectHashMap<SampleBuffer> dimTickTimes = new TIntObjectHashMap<SampleBuffer>();
+
+	private void clearStats() {
+		this.tickTimes.clear();
+		this.dimTickTimes.clear();
+	}
+
+	@Override
+	public void fini() {
+		this.subscribers.clear();
+		clearStats();
+	}
+
+	@SubscribeEvent
+	public void onServerDataSubscribe(@Nonnull final ServerDataSubscribeEvent event) {
+		if (event.subscribe)
+			this.subscribers.add(event.player.getUniqueID());
+		else
+			this.subscribers.remove(event.player.getUniqueID());
+
+		if (this.subscribers.isEmpty())
+			clearStats();
+	}
+
+	@SubscribeEvent
+	public void onPlayerLoggedOut(@Nonnull final PlayerEvent.PlayerLoggedOutEvent event) {
+		if (this.subscribers.remove(event.player.getUniqueID()) && this.subscribers.isEmpty())
+			clearStats();
+	}
+
+	@Nonnull
+	private static float[] percentiles(@Nonnull final SampleBuffer buffer) {
+		return new float[] { (float) (buffer.percentile(50) / 1000000D), (float) (buffer.percentile(95) / 1000000D),
+				(float) (buffer.percentile(99) / 1000000D) };
 	}
 
 	/**
-	 * Collect tick performance data for the loaded dimensions and broadcast to
-	 * attached players.
+	 * Collect tick performance data for the loaded dimensions and send to the
+	 * players that have the statistics display open. Nothing is collected
+	 * while nobody is looking.
 	 * 
 	 * @param event
 	 */
 	@SubscribeEvent
 	public void tickEvent(@Nonnull final TickEvent.ServerTickEvent event) {
-		if (!ModOptions.reportServerStats || event.phase != Phase.END)
+		if (!ModOptions.reportServerStats || event.phase != Phase.END || this.subscribers.isEmpty())
 			return;
 
+		final MinecraftServer server = FMLCommonHandler.instance().getMinecraftServerInstance();
+
+		// Pick up the times Minecraft recorded for the tick that just ended
+		final int idx = server.getTickCounter() % server.tickTimeArray.length;
+		this.tickTimes.add(server.tickTimeArray[idx]);
+		for (final WorldServer world : server.worlds) {
+			final int dim = world.provider.getDimension();
+			final long[] times = server.worldTickTimes.get(dim);
+			if (times != null) {
+				SampleBuffer buffer = this.dimTickTimes.get(dim);
+				if (buffer == null)
+					this.dimTickTimes.put(dim, buffer = new SampleBuffer(STATS_SAMPLES));
+				buffer.add(times[idx % times.length]);
+			}
+		}
+
 		// Spam once a second
 		if ((++tpsCount % 20) != 0)
 			return;
 
-		MinecraftServer server = FMLCommonHandler.instance().getMinecraftServerInstance();
-
 		final TIntDoubleHashMap map = new TIntDoubleHashMap();
-		for (Integer dim : DimensionManager.getIDs()) {
-			map.put(dim.intValue(), mean((long[]) server.worldTickTimes.get(dim)) / 1000000D);
+		final TIntObjectHashMap<float[]> pMap = new TIntObjectHashMap<float[]>();
+		final TIntObjectIterator<SampleBuffer> itr = this.dimTickTimes.iterator();
+		while (itr.hasNext()) {
+			itr.advance();
+			if (DimensionManager.getWorld(itr.key()) == null) {
+				itr.remove();
+			} else {
+				map.put(itr.key(), itr.value().mean() / 1000000D);
+				pMap.put(itr.key(), percentiles(itr.value()));
+			}
 		}
 
-		final double meanTickTime = mean(server.tickTimeArray) / 1000000D;
+		final double meanTickTime = this.tickTimes.mean() / 1000000D;
 		final int total = (int) (Runtime.getRuntime().totalMemory() / 1024L / 1024L);
 		final int max = (int) (Runtime.getRuntime().maxMemory() / 1024L / 1024L);
 		final int free = (int) (Runtime.getRuntime().freeMemory() / 1024L / 1024L);
 
-		final PacketServerData packet = new PacketServerData(map, meanTickTime, free, total, max);
-		Network.sendToAll(packet);
+		final PacketServerData packet = new PacketServerData(map, pMap, meanTickTime, percentiles(this.tickTimes),
+				free, total, max);
+		for (final UUID id : this.subscribers) {
+			final EntityPlayerMP player = server.getPlayerList().getPlayerByUUID(id);
+			if (player != null)
+				Network.sendToPlayer(player, packet);
+		}
 	}
 }
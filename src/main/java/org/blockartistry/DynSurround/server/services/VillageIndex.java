@@ -0,0 +1,135 @@
+/*
+ * This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.DynSurround.server.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.village.Village;
+import net.minecraft.village.VillageCollection;
+
+/**
+ * Spatial index of the villages in a dimension. Villages are bucketed into a
+ * coarse grid based on the square that bounds their radius, so a lookup only
+ * has to test the handful of villages whose bucket the position falls in.
+ *
+ * Vanilla moves village centers and grows their radius as doors are added or
+ * removed, so the index keeps a snapshot of the center and radius of each
+ * village it was built from and is rebuilt when any of it differs.
+ */
+final class VillageIndex {
+
+	// Buckets are 64x64 blocks - villages tend to have a radius of 32 or more
+	private static final int CELL_SHIFT = 6;
+
+	private final TLongObjectHashMap<List<Village>> cells = new TLongObjectHashMap<List<Village>>();
+	private final List<Village> villages = new ArrayList<Village>();
+	private final List<BlockPos> centers = new ArrayList<BlockPos>();
+	private int[] radii = new int[0];
+	private long lastChecked = -1;
+
+	private static long key(final int cellX, final int cellZ) {
+		return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Brings the index in line with the village collection. The check is done
+	 * at most once per world tick regardless of how many players are looked
+	 * up. Returns true if the index was rebuilt.
+	 */
+	public boolean update(@Nonnull final VillageCollection collection, final long worldTime) {
+		if (this.lastChecked == worldTime)
+			return false;
+		this.lastChecked = worldTime;
+
+		final List<Village> current = collection.getVillageList();
+		if (!hasChanged(current))
+			return false;
+
+		rebuild(current);
+		return true;
+	}
+
+	private boolean hasChanged(@Nonnull final List<Village> current) {
+		if (current.size() != this.villages.size())
+			return true;
+
+		for (int i = 0; i < current.size(); i++) {
+			final Village v = current.get(i);
+			if (v != this.villages.get(i) || v.getVillageRadius() != this.radii[i]
+					|| !v.getCenter().equals(this.centers.get(i)))
+				return true;
+		}
+
+		return false;
+	}
+
+	private void rebuild(@Nonnull final List<Village> current) {
+		this.cells.clear();
+		this.villages.clear();
+		this.centers.clear();
+		this.radii = new int[current.size()];
+
+		for (int i = 0; i < current.size(); i++) {
+			final Village v = current.get(i);
+			final BlockPos center = v.getCenter();
+			final int radius = v.getVillageRadius();
+			this.villages.add(v);
+			this.centers.add(center);
+			this.radii[i] = radius;
+
+			final int minX = (center.getX() - radius) >> CELL_SHIFT;
+			final int maxX = (center.getX() + radius) >> CELL_SHIFT;
+			final int minZ = (center.getZ() - radius) >> CELL_SHIFT;
+			final int maxZ = (center.getZ() + radius) >> CELL_SHIFT;
+			for (int cX = minX; cX <= maxX; cX++)
+				for (int cZ = minZ; cZ <= maxZ; cZ++) {
+					final long key = key(cX, cZ);
+					List<Village> bucket = this.cells.get(key);
+					if (bucket == null)
+						this.cells.put(key, bucket = new ArrayList<Village>(2));
+					bucket.add(v);
+				}
+		}
+	}
+
+	public boolean isInVillage(@Nonnull final BlockPos pos) {
+		if (this.cells.isEmpty())
+			return false;
+
+		final List<Village> bucket = this.cells.get(key(pos.getX() >> CELL_SHIFT, pos.getZ() >> CELL_SHIFT));
+		if (bucket != null)
+			for (int i = 0; i < bucket.size(); i++)
+				if (bucket.get(i).isBlockPosWithinSqVillageRadius(pos))
+					return true;
+
+		return false;
+	}
+
+}
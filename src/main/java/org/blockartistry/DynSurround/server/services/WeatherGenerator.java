@@ -48,12 +48,42 @@ import net.minecraft.world.storage.WorldInfo;
 
 public class WeatherGenerator {
 
+	// Rain intensity and thunder strength are quantized to this step when
+	// deciding whether the clients need to hear about a change.
+	protected static final int QUANTIZE = 64;
+	// How far a countdown timer can drift from what the client extrapolates
+	// before an update is sent.
+	protected static final int TIMER_TOLERANCE = 20;
+	// Upper bound on the ticks between updates as a guard against drift.
+	protected static final int RESYNC_INTERVAL = 20 * 30;
+
+	// Tally of the packets that were sent vs. the packets that would have been
+	// sent if every tick was broadcast to every player.
+	static long packetsSent = 0;
+	static long packetsPossible = 0;
+
 	protected final Random RANDOM = XorShiftRandom.current();
 	protected final DimensionInfo dimension;
 	protected final World world;
 	protected final WorldInfo info;
 	protected final DimensionEffectData data;
 
+	// What the clients in the dimension were last told
+	private boolean synced = false;
+	private int ticks = 0;
+	private int syncTick;
+	private int syncIntensity;
+	private int syncMaxIntensity;
+	private int syncThunderStrength;
+	private int syncRainTime;
+	private int syncThunderTime;
+	private int syncThunderEvent;
+
+	// Scheduler state. A parked generator is not updated until it is woken.
+	private boolean parked = false;
+	private long parkedAt;
+	private long wakeTick;
+
 	public WeatherGenerator(@Nonnull final World world) {
 		this.world = world;
 		this.info = world.getWorldInfo();
@@ -183,6 +213,7 @@ public class WeatherGenerator {
 	public final void update() {
 		this.process();
 		this.sendUpdate();
+		this.data.tick();
 	}
 
 	protected void process() {
@@ -193,13 +224,177 @@ public class WeatherGenerator {
 		this.postProcess();
 	}
 
+	/**
+	 * Whether the weather has stopped changing on its own: the world strengths
+	 * have reached their targets and our data reflects them. Until one of the
+	 * timers runs out an update would not change anything.
+	 */
+	protected boolean isSettled() {
+		final float rain = this.world.getRainStrength(1.0F);
+		final float thunder = this.world.getThunderStrength(1.0F);
+		final boolean raining = this.info.isRaining();
+		return rain == (raining ? 1.0F : 0.0F) && thunder == (raining && this.info.isThundering() ? 1.0F : 0.0F)
+				&& this.data.getCurrentRainIntensity() == rain && (raining == this.data.getRainIntensity() > 0.0F);
+	}
+
+	/**
+	 * Number of updates that can be skipped before a timer runs out and the
+	 * generator has to act.
+	 */
+	protected int ticksToDeadline() {
+		// Rain and thunder flip when their timer reaches 2
+		return Math.min(this.info.getRainTime(), this.info.getThunderTime()) - 2;
+	}
+
+	/**
+	 * Brings state that counts down every update forward by the specified
+	 * number of skipped updates. The results are the same as if each update
+	 * had been run, minus the thunder packets nobody was around to receive.
+	 */
+	protected void fastForward(final int ticks) {
+		if (!ModOptions.allowBackgroundThunder || ticks <= 0)
+			return;
+
+		final float intensity = this.data.getCurrentRainIntensity();
+		if (!this.info.isThundering() || intensity < ModOptions.stormThunderThreshold) {
+			this.data.setThunderTimer(0);
+			return;
+		}
+
+		int time = this.data.getThunderTimer();
+		int remaining = ticks;
+		while (remaining > 0) {
+			final int toReset = Math.max(time, 1);
+			if (remaining < toReset) {
+				time -= remaining;
+				remaining = 0;
+			} else {
+				remaining -= toReset;
+				time = nextThunderEvent(intensity);
+			}
+		}
+		this.data.setThunderTimer(time);
+	}
+
+	public final boolean isParked() {
+		return this.parked;
+	}
+
+	public final long getWakeTick() {
+		return this.wakeTick;
+	}
+
+	/**
+	 * Flags weather state that changed since the last save for saving.
+	 * Returns true if the data has to be written.
+	 */
+	public final boolean flush() {
+		this.data.flush();
+		return this.data.isDirty();
+	}
+
+	/**
+	 * Parks the generator if nobody is in the dimension and the weather has
+	 * settled. Returns the tick at which it has to be woken, or -1 if it was
+	 * not parked.
+	 */
+	public final long park(final long tick, final int maxTicks) {
+		if (!this.world.playerEntities.isEmpty() || !isSettled())
+			return -1;
+
+		final int ticks = Math.min(ticksToDeadline(), maxTicks);
+		if (ticks <= 1)
+			return -1;
+
+		this.data.flush();
+		this.parked = true;
+		this.parkedAt = tick;
+		this.wakeTick = tick + ticks;
+		return this.wakeTick;
+	}
+
+	/**
+	 * Wakes a parked generator. The updates between the one where it was
+	 * parked and the current tick are fast forwarded; the update for the
+	 * current tick is left to the caller.
+	 */
+	public final void wake(final long tick) {
+		if (this.parked) {
+			this.parked = false;
+			fastForward((int) (tick - this.parkedAt - 1));
+		}
+	}
+
+	/**
+	 * Brings a parked generator up to date right away. Used when a player
+	 * arrives after the dimension has already ticked.
+	 */
+	public final void catchUp(final long tick) {
+		if (this.parked) {
+			wake(tick);
+			this.process();
+		}
+	}
+
+	/**
+	 * Full state of the weather in the dimension. Sent to players as they
+	 * join the dimension.
+	 */
+	@Nonnull
+	public PacketWeatherUpdate createSnapshot() {
+		return new PacketWeatherUpdate(this.data.getDimensionId(), this.data.getCurrentRainIntensity(),
+				this.data.getRainIntensity(), this.info.getRainTime(), this.world.getThunderStrength(1.0F),
+				this.info.getThunderTime(), this.data.getThunderTimer());
+	}
+
+	private static int quantize(final float value) {
+		// No rain has to be distinct from a trace of rain
+		return value <= 0.0F ? -1 : (int) (value * QUANTIZE);
+	}
+
+	private static boolean drifted(final int synced, final int current, final int elapsed) {
+		// Clients count the timers down locally between updates
+		final int expected = Math.max(synced - elapsed, 0);
+		return Math.abs(current - expected) > TIMER_TOLERANCE;
+	}
+
 	protected void sendUpdate() {
-		// Send the weather update to all players in the dimension.
-		if (this.world.playerEntities.size() > 0) {
-			final PacketWeatherUpdate packet = new PacketWeatherUpdate(this.data.getDimensionId(),
-					this.data.getCurrentRainIntensity(), this.data.getRainIntensity(), this.info.getRainTime(),
-					this.world.getThunderStrength(1.0F), this.info.getThunderTime(), this.data.getThunderTimer());
-			Network.sendToDimension(this.data.getDimensionId(), packet);
+		this.ticks++;
+
+		// Players that join the dimension get a snapshot so there is
+		// nothing to maintain while it is empty.
+		if (this.world.playerEntities.isEmpty()) {
+			this.synced = false;
+			return;
 		}
+
+		final int players = this.world.playerEntities.size();
+		packetsPossible += players;
+
+		final int intensity = quantize(this.data.getCurrentRainIntensity());
+		final int maxIntensity = quantize(this.data.getRainIntensity());
+		final int thunderStrength = quantize(this.world.getThunderStrength(1.0F));
+		final int rainTime = this.info.getRainTime();
+		final int thunderTime = this.info.getThunderTime();
+		final int thunderEvent = this.data.getThunderTimer();
+		final int elapsed = this.ticks - this.syncTick;
+
+		if (this.synced && elapsed < RESYNC_INTERVAL && intensity == this.syncIntensity
+				&& maxIntensity == this.syncMaxIntensity && thunderStrength == this.syncThunderStrength
+				&& !drifted(this.syncRainTime, rainTime, elapsed) && !drifted(this.syncThunderTime, thunderTime, elapsed)
+				&& !drifted(this.syncThunderEvent, thunderEvent, elapsed))
+			return;
+
+		this.synced = true;
+		this.syncTick = this.ticks;
+		this.syncIntensity = intensity;
+		this.syncMaxIntensity = maxIntensity;
+		this.syncThunderStrength = thunderStrength;
+		this.syncRainTime = rainTime;
+		this.syncThunderTime = thunderTime;
+		this.syncThunderEvent = thunderEvent;
+
+		packetsSent += players;
+		Network.sendToDimension(this.data.getDimensionId(), createSnapshot());
 	}
 }
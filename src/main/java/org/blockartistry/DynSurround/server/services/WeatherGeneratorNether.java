@@ -61,4 +61,23 @@ public class WeatherGeneratorNether extends WeatherGenerator {
 		
 	}
 
+	// Only the rain timer matters
+	@Override
+	protected int ticksToDeadline() {
+		return this.info.getRainTime() - 2;
+	}
+
+	@Override
+	protected boolean isSettled() {
+		final float rain = this.world.getRainStrength(1.0F);
+		final boolean raining = this.info.isRaining();
+		return rain == (raining ? 1.0F : 0.0F) && this.data.getCurrentRainIntensity() == rain
+				&& (raining == this.data.getRainIntensity() > 0.0F);
+	}
+
+	@Override
+	protected void fastForward(final int ticks) {
+		// No timers of our own
+	}
+
 }
@@ -42,4 +42,19 @@ public class WeatherGeneratorNone extends WeatherGenerator {
 		this.data.setThunderTimer(0);
 	}
 
+	@Override
+	protected boolean isSettled() {
+		return true;
+	}
+
+	@Override
+	protected int ticksToDeadline() {
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	protected void fastForward(final int ticks) {
+		// Nothing counts down
+	}
+
 }
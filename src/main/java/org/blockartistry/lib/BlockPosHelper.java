@@ -86,6 +86,15 @@ public final class BlockPosHelper {
 
 	}
 
+	/**
+	 * Packs chunk section coordinates into a long suitable for use as a hash
+	 * key. Coordinates are section coordinates, not block coordinates (i.e.
+	 * block coordinate >> 4).
+	 */
+	public static long sectionKey(final int sX, final int sY, final int sZ) {
+		return (((long) sX & 0x3FFFFFL) << 42) | (((long) sZ & 0x3FFFFFL) << 20) | (sY & 0xFFFFFL);
+	}
+
 	/**
 	 * Like getAllInBox but reuses a single MutableBlockPos instead. If this
 	 * method is used, the resulting BlockPos instances can only be used inside
@@ -0,0 +1,70 @@
+/* This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package org.blockartistry.lib;
+
+import java.util.BitSet;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.blockartistry.lib.WeightTable.IEntrySource;
+
+/**
+ * Weight table over a set of entry sources whose membership depends on their
+ * conditions. The matched subset is cached along with its alias tables and is
+ * only rebuilt when the set of sources whose conditions match changes.
+ */
+public class ConditionalWeightTable<T> {
+
+	private final IEntrySource<T>[] sources;
+	private final BitSet matched = new BitSet();
+	private final BitSet scratch = new BitSet();
+	private final WeightTable<T> table = new WeightTable<T>();
+	private boolean built = false;
+
+	public ConditionalWeightTable(@Nonnull final IEntrySource<T>[] sources) {
+		this.sources = sources;
+	}
+
+	@Nullable
+	public T next() {
+		this.scratch.clear();
+		for (int i = 0; i < this.sources.length; i++)
+			if (this.sources[i].matches())
+				this.scratch.set(i);
+
+		if (!this.built || !this.scratch.equals(this.matched)) {
+			this.table.clear();
+			for (int i = this.scratch.nextSetBit(0); i >= 0; i = this.scratch.nextSetBit(i + 1))
+				this.table.add(this.sources[i].getEntry());
+			this.matched.clear();
+			this.matched.or(this.scratch);
+			this.built = true;
+		}
+
+		return this.table.next();
+	}
+
+}
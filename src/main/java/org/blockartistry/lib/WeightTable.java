@@ -30,11 +30,19 @@ import javax.annotation.Nonnull;
 import org.blockartistry.lib.collections.ObjectArray;
 import org.blockartistry.lib.random.XorShiftRandom;
 
+/**
+ * Weighted random selection using Vose's alias method. The alias tables are
+ * built on the first call to next() after the content changes, after which
+ * each selection is O(1) regardless of the number of entries.
+ */
 public class WeightTable<T> extends ObjectArray<WeightTable.IItem<T>> {
 
 	protected final Random RANDOM = XorShiftRandom.current();
 	protected int totalWeight = 0;
 
+	protected float[] probability;
+	protected int[] alias;
+
 	public static interface IItem<T> {
 		
 		int getWeight();
@@ -56,25 +64,76 @@ public class WeightTable<T> extends ObjectArray<WeightTable.IItem<T>> {
 	public boolean add(@Nonnull final WeightTable.IItem<T> entry) {
 		assert entry != null;
 		this.totalWeight += entry.getWeight();
+		this.probability = null;
 		return super.add(entry);
 	}
 
+	@Override
+	public void clear() {
+		super.clear();
+		this.totalWeight = 0;
+		this.probability = null;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected void buildAlias() {
+		final int count = this.size();
+		final float[] prob = new float[count];
+		final int[] alias = new int[count];
+		final double[] scaled = new double[count];
+		final int[] small = new int[count];
+		final int[] large = new int[count];
+		int smallIdx = 0;
+		int largeIdx = 0;
+
+		for (int i = 0; i < count; i++) {
+			scaled[i] = (double) ((WeightTable.IItem<T>) this.data[i]).getWeight() * count / this.totalWeight;
+			if (scaled[i] < 1.0D)
+				small[smallIdx++] = i;
+			else
+				large[largeIdx++] = i;
+		}
+
+		while (smallIdx > 0 && largeIdx > 0) {
+			final int s = small[--smallIdx];
+			final int l = large[--largeIdx];
+			prob[s] = (float) scaled[s];
+			alias[s] = l;
+			scaled[l] = (scaled[l] + scaled[s]) - 1.0D;
+			if (scaled[l] < 1.0D)
+				small[smallIdx++] = l;
+			else
+				large[largeIdx++] = l;
+		}
+
+		// Whatever is left over is full due to rounding
+		while (largeIdx > 0) {
+			final int l = large[--largeIdx];
+			prob[l] = 1.0F;
+			alias[l] = l;
+		}
+		while (smallIdx > 0) {
+			final int s = small[--smallIdx];
+			prob[s] = 1.0F;
+			alias[s] = s;
+		}
+
+		this.alias = alias;
+		this.probability = prob;
+	}
+
 	@SuppressWarnings("unchecked")
 	@Nonnull
 	public T next() {
 		if (this.totalWeight <= 0)
 			return null;
 
-		int targetWeight = this.RANDOM.nextInt(this.totalWeight);
-
-		WeightTable.IItem<T> selected = null;
-		int i = -1;
-		do {
-			selected = (WeightTable.IItem<T>) this.data[++i];
-			targetWeight -= selected.getWeight();
-		} while (targetWeight >= 0);
+		if (this.probability == null)
+			buildAlias();
 
-		return selected.getItem();
+		final int i = this.RANDOM.nextInt(this.insertionIdx);
+		final int idx = this.RANDOM.nextFloat() < this.probability[i] ? i : this.alias[i];
+		return ((WeightTable.IItem<T>) this.data[idx]).getItem();
 	}
 
 	public static interface IEntrySource<T> {
@@ -0,0 +1,96 @@
+/* This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package org.blockartistry.lib.collections;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size ring buffer of long samples. The sum is maintained as samples
+ * are added so the mean is O(1). Percentiles are taken from a sorted copy
+ * that is only rebuilt when samples have been added since the last request.
+ */
+public class SampleBuffer {
+
+	private final long[] samples;
+	private final long[] sorted;
+	private int next;
+	private int count;
+	private long sum;
+	private boolean sortValid;
+
+	public SampleBuffer(final int capacity) {
+		this.samples = new long[capacity];
+		this.sorted = new long[capacity];
+	}
+
+	public void add(final long sample) {
+		if (this.count == this.samples.length)
+			this.sum -= this.samples[this.next];
+		else
+			this.count++;
+		this.samples[this.next] = sample;
+		this.sum += sample;
+		this.next = (this.next + 1) % this.samples.length;
+		this.sortValid = false;
+	}
+
+	public int size() {
+		return this.count;
+	}
+
+	public boolean isEmpty() {
+		return this.count == 0;
+	}
+
+	public void clear() {
+		this.next = 0;
+		this.count = 0;
+		this.sum = 0;
+		this.sortValid = false;
+	}
+
+	public double mean() {
+		return this.count == 0 ? 0D : (double) this.sum / this.count;
+	}
+
+	/**
+	 * Value at the specified percentile (0 - 100) using the nearest rank
+	 * method.
+	 */
+	public long percentile(final double p) {
+		if (this.count == 0)
+			return 0;
+
+		if (!this.sortValid) {
+			System.arraycopy(this.samples, 0, this.sorted, 0, this.count);
+			Arrays.sort(this.sorted, 0, this.count);
+			this.sortValid = true;
+		}
+
+		final int rank = (int) Math.ceil(p / 100D * this.count);
+		return this.sorted[Math.min(Math.max(rank, 1), this.count) - 1];
+	}
+
+}
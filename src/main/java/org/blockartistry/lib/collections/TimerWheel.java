@@ -0,0 +1,183 @@
+/* This file is part of Dynamic Surroundings, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) OreCruncher
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.blockartistry.lib.collections;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Hashed timer wheel for scheduling items against a monotonic clock such as
+ * a tick counter or milliseconds. Each slot covers a fixed span of time and
+ * items that are more than one rotation out stay in their slot until their
+ * time comes around. Scheduling is O(1) and an advance only visits the slots
+ * that have elapsed. Nodes are recycled so steady state operation does not
+ * allocate.
+ */
+public class TimerWheel<T> implements Iterable<T> {
+
+	public static interface Handler<T> {
+		void onExpire(@Nonnull final T item);
+	}
+
+	private static final long UNSET = Long.MIN_VALUE;
+
+	private static final class Node<T> {
+		public T item;
+		public long when;
+		public Node<T> next;
+	}
+
+	private final Node<T>[] slots;
+	private final int mask;
+	private final long resolution;
+
+	private long cursor = UNSET;
+	private int size;
+	private Node<T> free;
+
+	/**
+	 * @param slotCount
+	 *            Number of slots in the wheel. Rounded up to a power of 2.
+	 * @param resolution
+	 *            Span of time covered by each slot.
+	 */
+	@SuppressWarnings("unchecked")
+	public TimerWheel(final int slotCount, final long resolution) {
+		int count = 1;
+		while (count < slotCount)
+			count <<= 1;
+		this.slots = (Node<T>[]) new Node[count];
+		this.mask = count - 1;
+		this.resolution = Math.max(resolution, 1L);
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Schedules the item to expire at the specified time. Times that have
+	 * already passed expire on the next advance.
+	 */
+	public void schedule(@Nonnull final T item, final long when) {
+		long slot = when / this.resolution;
+		if (this.cursor == UNSET)
+			this.cursor = slot - 1;
+		else if (slot <= this.cursor)
+			slot = this.cursor + 1;
+
+		Node<T> node = this.free;
+		if (node != null)
+			this.free = node.next;
+		else
+			node = new Node<T>();
+
+		node.item = item;
+		node.when = when;
+
+		final int idx = (int) (slot & this.mask);
+		node.next = this.slots[idx];
+		this.slots[idx] = node;
+		this.size++;
+	}
+
+	/**
+	 * Expires all items scheduled at or before the specified time. Items
+	 * scheduled from within the handler are processed on a later advance.
+	 */
+	public void advance(final long now, @Nonnull final Handler<T> handler) {
+		final long target = now / this.resolution;
+		if (this.cursor == UNSET || this.size == 0 || target < this.cursor) {
+			// Nothing to do, or the clock has been reset
+			this.cursor = target;
+			return;
+		}
+
+		// Once around the wheel is enough to see everything
+		if (target - this.cursor > this.slots.length)
+			this.cursor = target - this.slots.length;
+
+		while (this.cursor < target && this.size > 0) {
+			this.cursor++;
+			final int idx = (int) (this.cursor & this.mask);
+			Node<T> node = this.slots[idx];
+			this.slots[idx] = null;
+			while (node != null) {
+				final Node<T> next = node.next;
+				if (node.when <= now) {
+					final T item = node.item;
+					node.item = null;
+					node.next = this.free;
+					this.free = node;
+					this.size--;
+					handler.onExpire(item);
+				} else {
+					node.next = this.slots[idx];
+					this.slots[idx] = node;
+				}
+				node = next;
+			}
+		}
+
+		this.cursor = target;
+	}
+
+	public void clear() {
+		for (int i = 0; i < this.slots.length; i++)
+			this.slots[i] = null;
+		this.size = 0;
+		this.cursor = UNSET;
+	}
+
+	@Override
+	@Nonnull
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private int slot = -1;
+			private Node<T> node;
+
+			@Override
+			public boolean hasNext() {
+				while (this.node == null && this.slot < TimerWheel.this.mask)
+					this.node = TimerWheel.this.slots[++this.slot];
+				return this.node != null;
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				final T item = this.node.item;
+				this.node = this.node.next;
+				return item;
+			}
+		};
+	}
+}